@@ -0,0 +1,104 @@
+package com.studybot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * /참여도, /확인, /리포트 의 집계 비용.
+ * 채널 기록 전체를 스트림으로 묶던 이전 방식(groupingBy/toSet, toMap)과 저장소의 비트셋·날짜 색인을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AggregationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int records;
+
+    @Param({"10", "1000", "50000"})
+    public int members;
+
+    private SyntheticChannel channel;
+    private Path directory;
+    private ParticipationStore store;
+    private LocalDate checkDate;
+
+    @Setup
+    public void setUp() throws IOException {
+        channel = SyntheticChannel.generate(records, members);
+        directory = Files.createTempDirectory("studybot-bench");
+        store = channel.openStore(directory);
+        checkDate = SyntheticChannel.TODAY.minusDays(1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        SyntheticChannel.delete(directory);
+    }
+
+    @Benchmark
+    public void participationGroupingBy(Blackhole bh) {
+        Map<Long, Set<LocalDate>> daysByUser = channel.records.stream()
+                .collect(Collectors.groupingBy(StudyRecord::userId,
+                        Collectors.mapping(record -> record.date(StudyBot.KST), Collectors.toSet())));
+        for (RosterMember member : channel.members) {
+            LocalDate joinDate = member.joinDate(StudyBot.KST);
+            long count = daysByUser.getOrDefault(member.userId(), Set.of()).stream()
+                    .filter(date -> !date.isBefore(joinDate))
+                    .count();
+            bh.consume(count);
+        }
+    }
+
+    @Benchmark
+    public void participationStore(Blackhole bh) {
+        LocalDate today = SyntheticChannel.TODAY;
+        for (RosterMember member : channel.members) {
+            bh.consume(store.countDays(member.userId(), member.joinDate(StudyBot.KST), today));
+            bh.consume(store.currentStreak(member.userId(), today));
+            bh.consume(store.longestStreak(member.userId()));
+        }
+    }
+
+    /** /리포트 의 기간별 집계. 멤버별 참여일 수가 누적합 조회라 기간 길이와 관계없어야 한다. */
+    @Benchmark
+    public ParticipationReport monthlyReport() {
+        return ParticipationReport.create(channel.members, store, SyntheticChannel.TODAY.minusDays(29), SyntheticChannel.TODAY);
+    }
+
+    @Benchmark
+    public ParticipationReport yearlyReport() {
+        return ParticipationReport.create(channel.members, store, SyntheticChannel.TODAY.minusDays(365), SyntheticChannel.TODAY);
+    }
+
+    @Benchmark
+    public Map<Long, String> dateCheckToMap() {
+        return channel.records.stream()
+                .filter(record -> record.date(StudyBot.KST).equals(checkDate))
+                .filter(record -> channel.roster.get(record.userId()) != null)
+                .collect(Collectors.toMap(StudyRecord::userId, StudyRecord::content, (first, second) -> first));
+    }
+
+    @Benchmark
+    public Map<RosterMember, String> dateCheckStore() {
+        return StudyService.matchParticipants(channel.roster, store.getRecords(checkDate));
+    }
+}
@@ -0,0 +1,79 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * /확인 과 /참여도 응답 임베드를 만드는 비용. 필드 분할과 페이지 나누기까지 포함한다.
+ * /참여도는 스냅샷 계산과 페이지 하나를 그리는 비용을 따로 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EmbedBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    public int members;
+
+    private SyntheticChannel channel;
+    private Path directory;
+    private ParticipationStore store;
+    private LocalDate checkDate;
+    private Map<RosterMember, String> participants;
+    private List<RosterMember> absentMembers;
+    private ParticipationView view;
+
+    @Setup
+    public void setUp() throws IOException {
+        // 멤버당 평균 20일 참여한 채널
+        channel = SyntheticChannel.generate(members * 20, members);
+        directory = Files.createTempDirectory("studybot-bench");
+        store = channel.openStore(directory);
+        checkDate = SyntheticChannel.TODAY.minusDays(1);
+        participants = StudyService.matchParticipants(channel.roster, store.getRecords(checkDate));
+        absentMembers = channel.members.stream()
+                .filter(member -> !participants.containsKey(member))
+                .collect(Collectors.toList());
+        view = ParticipationView.create(channel.members, store, SyntheticChannel.TODAY);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        SyntheticChannel.delete(directory);
+    }
+
+    @Benchmark
+    public List<MessageEmbed> dateCheckEmbeds() {
+        return StudyService.createDateCheckEmbeds(checkDate, participants, absentMembers);
+    }
+
+    /** /참여도 스냅샷 계산: 멤버별 집계와 정렬 기준별 정렬 */
+    @Benchmark
+    public ParticipationView participationView() {
+        return ParticipationView.create(channel.members, store, SyntheticChannel.TODAY);
+    }
+
+    /** 버튼으로 페이지를 넘길 때 드는 비용: 스냅샷에서 한 페이지만 그린다. */
+    @Benchmark
+    public MessageEmbed participationPage() {
+        return view.render(ParticipationView.Sort.STREAK, view.pageCount() / 2);
+    }
+}
@@ -0,0 +1,47 @@
+package com.studybot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채널 기록을 불러올 때 메시지마다 실행되는 푸터 파싱 비용. 기록이 아닌 푸터와 깨진 푸터도 섞어 둔다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FooterParseBenchmark {
+    private static final int FOOTERS = 1024;
+
+    private final String[] footers = new String[FOOTERS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < FOOTERS; i++) {
+            long userId = SyntheticChannel.FIRST_USER_ID + random.nextInt(50_000);
+            footers[i] = switch (random.nextInt(10)) {
+                case 0 -> "다른 봇의 푸터";
+                case 1 -> StudyRecord.FOOTER_PREFIX + "잘못된 ID";
+                default -> StudyRecord.FOOTER_PREFIX + userId;
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FOOTERS)
+    public void parseUserId(Blackhole bh) {
+        for (String footer : footers) {
+            bh.consume(StudyRecord.parseUserId(footer));
+        }
+    }
+}
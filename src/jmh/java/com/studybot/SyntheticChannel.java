@@ -0,0 +1,71 @@
+package com.studybot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * 벤치마크용 가상 채널. 멤버 명단과 최근 1년치에 고르게 흩어진 스터디 기록을 시드 고정 난수로 만든다.
+ */
+final class SyntheticChannel {
+    static final LocalDate TODAY = LocalDate.of(2025, 7, 21);
+    static final int DAYS = 365;
+    static final long FIRST_USER_ID = 100_000_000_000_000_000L;
+
+    private static final String[] CONTENTS = {
+            "알고리즘 2문제",
+            "스프링 시큐리티 공식 문서 읽고 필터 체인 정리",
+            "운영체제 강의 7강 - 프로세스 동기화, 세마포어와 모니터 비교하고 예제 코드 작성",
+            "SQL 튜닝 스터디: 실행 계획 보는 법, 인덱스 스캔과 풀 스캔 차이, 복합 인덱스 컬럼 순서 정리. "
+                    + "다음 주에는 조인 알고리즘(NL, 해시, 소트 머지) 비교 예정",
+    };
+
+    final List<RosterMember> members;
+    final RosterCache.Roster roster;
+    final List<StudyRecord> records;
+
+    private SyntheticChannel(List<RosterMember> members, List<StudyRecord> records) {
+        this.members = members;
+        this.roster = RosterCache.Roster.of(members);
+        this.records = records;
+    }
+
+    static SyntheticChannel generate(int recordCount, int memberCount) {
+        Random random = new Random(42);
+        List<RosterMember> members = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            long joinedAt = TODAY.minusDays(DAYS + random.nextInt(100)).atStartOfDay(StudyBot.KST).toInstant().toEpochMilli();
+            members.add(new RosterMember(FIRST_USER_ID + i, "멤버" + i, "member" + i, joinedAt));
+        }
+
+        long todayMillis = TODAY.atStartOfDay(StudyBot.KST).toInstant().toEpochMilli();
+        List<StudyRecord> records = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            long userId = FIRST_USER_ID + random.nextInt(memberCount);
+            long timestamp = todayMillis - random.nextInt(DAYS) * 86_400_000L + random.nextInt(86_400_000);
+            records.add(new StudyRecord(i + 1, userId, timestamp, CONTENTS[random.nextInt(CONTENTS.length)]));
+        }
+        return new SyntheticChannel(members, records);
+    }
+
+    /** 임시 디렉터리에 저장소를 열고 모든 기록을 백필한다. */
+    ParticipationStore openStore(Path directory) throws IOException {
+        ParticipationStore store = ParticipationStore.open(directory, StudyBot.KST);
+        store.backfill(records, LocalDate.MIN);
+        return store;
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.studybot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 디스코드 없이 동작하는 게이트웨이. 채널 기록과 서버 멤버를 메모리에 두고,
+ * 모든 요청에 인공 지연을 더하며 채널과 경로(history/record/message)별 초당 요청 수를 넘으면 다음 슬롯까지 기다리게 한다.
+ * 조회는 호출한 스레드에서 기다리고, 전송은 스케줄러에서 완료되므로 실제 JDA와 같은 스레드 모양이 된다.
+ */
+class FakeGateway implements StudyGateway {
+    private static final int BURST = 5;
+
+    /** 채널에 남은 메시지. 봇의 기록 임베드가 아니면 record가 null이다. */
+    private record StoredMessage(long messageId, StudyRecord record, String content) {
+    }
+
+    private final Map<Long, NavigableMap<Long, StoredMessage>> histories = new ConcurrentHashMap<>();
+    private final Map<Long, List<RosterMember>> guildMembers = new ConcurrentHashMap<>();
+    private final Map<String, RateLimiter> limiters = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private final long latencyNanos;
+    private final double requestsPerSecond;
+
+    final LongAdder requests = new LongAdder();
+    final LongAdder rateLimited = new LongAdder();
+
+    FakeGateway(ScheduledExecutorService scheduler, long latencyMillis, double requestsPerSecond) {
+        this.scheduler = scheduler;
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /** memberCount명의 멤버를 만들고, 최근 days일에 흩어진 기록 recordCount건을 채널 기록으로 넣는다. */
+    void seed(long guildId, long channelId, int memberCount, int recordCount, int days, Random random) {
+        Instant now = Instant.now();
+        List<RosterMember> members = new ArrayList<>(memberCount);
+        long firstUserId = guildId * 100_000;
+        for (int i = 0; i < memberCount; i++) {
+            members.add(new RosterMember(firstUserId + i, "멤버" + i, "member" + i,
+                    now.minus(Duration.ofDays(days + random.nextInt(30))).toEpochMilli()));
+        }
+        guildMembers.merge(guildId, members, (existing, added) -> existing);
+
+        long nowMillis = System.currentTimeMillis();
+        for (int i = 0; i < recordCount; i++) {
+            long userId = firstUserId + random.nextInt(memberCount);
+            long timestamp = nowMillis - (long) (random.nextDouble() * days * 86_400_000L);
+            long messageId = nextId(Instant.ofEpochMilli(timestamp));
+            put(channelId, messageId, new StudyRecord(messageId, userId, timestamp, "기록 " + i), null);
+            // 대화 메시지도 섞여 있어야 페이지 수가 실제 채널과 비슷해진다.
+            if (random.nextInt(4) == 0) {
+                put(channelId, nextId(Instant.ofEpochMilli(timestamp + 1)), null, null);
+            }
+        }
+    }
+
+    List<RosterMember> members(long guildId) {
+        return guildMembers.getOrDefault(guildId, List.of());
+    }
+
+    @Override
+    public HistoryPage historyAfter(long channelId, long afterId, int limit) {
+        await("history:" + channelId);
+        List<StoredMessage> messages = new ArrayList<>(limit);
+        for (StoredMessage message : history(channelId).tailMap(afterId, false).values()) {
+            if (messages.size() == limit) {
+                break;
+            }
+            messages.add(message);
+        }
+        return toPage(messages);
+    }
+
+    @Override
+    public HistoryPage historyBefore(long channelId, long beforeId, int limit) {
+        await("history:" + channelId);
+        List<StoredMessage> messages = new ArrayList<>(limit);
+        for (StoredMessage message : history(channelId).headMap(beforeId, false).descendingMap().values()) {
+            if (messages.size() == limit) {
+                break;
+            }
+            messages.add(message);
+        }
+        // 페이지 안의 기록은 오래된 순서여야 한다.
+        Collections.reverse(messages);
+        return toPage(messages);
+    }
+
+    private static HistoryPage toPage(List<StoredMessage> messages) {
+        if (messages.isEmpty()) {
+            return new HistoryPage(List.of(), 0, 0, 0);
+        }
+        List<StudyRecord> records = new ArrayList<>();
+        for (StoredMessage message : messages) {
+            if (message.record() != null) {
+                records.add(message.record());
+            }
+        }
+        return new HistoryPage(records, messages.size(), messages.get(0).messageId(),
+                messages.get(messages.size() - 1).messageId());
+    }
+
+    @Override
+    public List<String> ownMessagesAfter(long channelId, long afterId, int maxMessages) {
+        await("history:" + channelId);
+        return history(channelId).tailMap(afterId, false).values().stream()
+                .limit(maxMessages)
+                .map(StoredMessage::content)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<RosterMember> loadMembers(long guildId) {
+        await("members:" + guildId);
+        return members(guildId);
+    }
+
+    @Override
+    public CompletableFuture<StudyRecord> postRecord(long channelId, Author author, String content, Instant createdAt) {
+        return later("record:" + channelId, 1, () -> {
+            long messageId = nextId(Instant.now());
+            StudyRecord record = new StudyRecord(messageId, author.userId(), System.currentTimeMillis(), content);
+            put(channelId, messageId, record, null);
+            return record;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> sendMessages(String route, long channelId, List<String> contents) {
+        return later(route + ":" + channelId, contents.size(), () -> {
+            contents.forEach(content -> put(channelId, nextId(Instant.now()), null, content));
+            return null;
+        });
+    }
+
+    private long nextId(Instant createdAt) {
+        // 스노우플레이크 하위 22비트는 같은 밀리초 안의 순번이므로, 전역 순번을 넣어 ID가 겹치지 않게 한다.
+        return HistoryRangeQuery.toSnowflake(createdAt) | (sequence.incrementAndGet() & 0x3FFFFF);
+    }
+
+    private void put(long channelId, long messageId, StudyRecord record, String content) {
+        history(channelId).put(messageId, new StoredMessage(messageId, record, content));
+    }
+
+    private NavigableMap<Long, StoredMessage> history(long channelId) {
+        return histories.computeIfAbsent(channelId, id -> new ConcurrentSkipListMap<>());
+    }
+
+    private void await(String route) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(latencyNanos + reserve(route, 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("요청 대기 중 중단되었습니다", e);
+        }
+    }
+
+    private <T> CompletableFuture<T> later(String route, int count, Supplier<T> action) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            try {
+                future.complete(action.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, latencyNanos * count + reserve(route, count), TimeUnit.NANOSECONDS);
+        return future;
+    }
+
+    /** count개의 요청 슬롯을 잡고, 마지막 슬롯까지 기다려야 하는 시간을 돌려준다. */
+    private long reserve(String route, int count) {
+        requests.add(count);
+        long delay = limiters.computeIfAbsent(route, r -> new RateLimiter(requestsPerSecond)).reserve(count);
+        if (delay > 0) {
+            rateLimited.add(count);
+        }
+        return delay;
+    }
+
+    /**
+     * 경로별 요청 간격을 지키는 토큰 버킷. 쉬고 있었다면 BURST개까지는 바로 보낼 수 있다.
+     */
+    private static final class RateLimiter {
+        private final long intervalNanos;
+        private long next = Long.MIN_VALUE / 2;
+
+        RateLimiter(double requestsPerSecond) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        }
+
+        synchronized long reserve(int count) {
+            long now = System.nanoTime();
+            next = Math.max(next, now - BURST * intervalNanos) + count * intervalNanos;
+            return Math.max(0, next - now);
+        }
+    }
+}
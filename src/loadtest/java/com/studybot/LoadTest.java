@@ -0,0 +1,217 @@
+package com.studybot;
+
+import com.studybot.ChannelRegistry.StudyChannel;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 디스코드 없이 /기록, /확인, /참여도, /검색, /리포트 요청을 동시에 쏟아붓고 명령어별 지연 시간과 처리량을 출력한다.
+ * 봇과 같은 StudyService, 명령어 실행기, 결과 캐시, 저장소를 쓰고 게이트웨이만 FakeGateway로 바꾼다.
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="--interactions=5000 --concurrency=200 --latency-ms=50"
+ * </pre>
+ */
+public final class LoadTest {
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("channels", "4");
+        DEFAULTS.put("members", "500");
+        DEFAULTS.put("history", "20000");
+        DEFAULTS.put("days", "180");
+        DEFAULTS.put("interactions", "5000");
+        DEFAULTS.put("concurrency", "200");
+        DEFAULTS.put("latency-ms", "50");
+        DEFAULTS.put("rate", "50");
+        DEFAULTS.put("mix", "기록:3,확인:5,참여도:2,검색:2,리포트:1");
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        int channelCount = Integer.parseInt(options.get("channels"));
+        int memberCount = Integer.parseInt(options.get("members"));
+        int historySize = Integer.parseInt(options.get("history"));
+        int days = Integer.parseInt(options.get("days"));
+        int interactions = Integer.parseInt(options.get("interactions"));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        String[] mix = parseMix(options.get("mix"));
+        System.out.println("🧪 부하 테스트 설정: " + options);
+
+        Path dataDir = Files.createTempDirectory("studybot-loadtest");
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        FakeGateway gateway = new FakeGateway(scheduler, Long.parseLong(options.get("latency-ms")),
+                Double.parseDouble(options.get("rate")));
+        ChannelStores stores = new ChannelStores(dataDir.resolve("channels"));
+        CommandExecutor commandExecutor = new CommandExecutor(StudyBot.COMMAND_THREADS, StudyBot.COMMAND_QUEUE_CAPACITY,
+                StudyBot.COMMAND_CONCURRENCY_LIMITS, 2);
+        ResultCache<List<MessageEmbed>> resultCache = new ResultCache<>("확인", StudyBot.RESULT_CACHE_SIZE);
+        try {
+            ChannelRegistry channels = new ChannelRegistry(dataDir.resolve("channels.properties"));
+            RosterCache roster = new RosterCache();
+            StudyService service = new StudyService(channels, stores, roster, commandExecutor, resultCache, gateway);
+
+            Random random = new Random(42);
+            List<StudyChannel> studyChannels = new ArrayList<>();
+            for (int i = 0; i < channelCount; i++) {
+                long guildId = 1_000 + i;
+                long channelId = 2_000 + i;
+                gateway.seed(guildId, channelId, memberCount, historySize, days, random);
+                channels.register(guildId, channelId, StudyBot.KST);
+                studyChannels.add(channels.get(channelId));
+            }
+
+            long syncStart = System.nanoTime();
+            studyChannels.parallelStream().forEach(service::synchronize);
+            System.out.printf("📥 채널 %d개 동기화: %.1f초 (요청 %d건)%n", channelCount,
+                    (System.nanoTime() - syncStart) / 1e9, gateway.requests.sum());
+
+            String[] commands = new String[interactions];
+            long[] latencies = new long[interactions];
+            boolean[] rejected = new boolean[interactions];
+            AtomicInteger failures = new AtomicInteger();
+            Semaphore inFlight = new Semaphore(concurrency);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < interactions; i++) {
+                String command = mix[random.nextInt(mix.length)];
+                StudyChannel studyChannel = studyChannels.get(random.nextInt(studyChannels.size()));
+                CompletableFuture<?> future;
+                inFlight.acquire();
+                long requestStart = System.nanoTime();
+                LocalDate today = LocalDate.now(studyChannel.zone());
+                switch (command) {
+                    case "기록" -> {
+                        List<RosterMember> members = gateway.members(studyChannel.guildId());
+                        RosterMember member = members.get(random.nextInt(members.size()));
+                        future = service.record(studyChannel, new StudyGateway.Author(member.userId(),
+                                member.userName(), null), "부하 테스트 기록 " + i, Instant.now());
+                    }
+                    // 최근 2주 안의 날짜를 고르게 조회한다.
+                    case "확인" -> future = service.checkDate(studyChannel, today.minusDays(random.nextInt(14)));
+                    case "참여도" -> future = service.participation(studyChannel, today);
+                    case "검색" -> future = service.search(studyChannel, "기록 " + random.nextInt(1000), null, null, 0);
+                    case "리포트" -> future = service.report(studyChannel, "부하 테스트 리포트", today.minusDays(29), today);
+                    default -> throw new IllegalArgumentException("알 수 없는 명령어: " + command);
+                }
+
+                int index = i;
+                commands[i] = command;
+                future.whenComplete((result, error) -> {
+                    latencies[index] = System.nanoTime() - requestStart;
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        if (cause instanceof RejectedExecutionException) {
+                            rejected[index] = true;
+                        } else {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    inFlight.release();
+                });
+            }
+            inFlight.acquire(concurrency);
+            long elapsed = System.nanoTime() - start;
+
+            report(commands, latencies, rejected, elapsed);
+            System.out.printf("실패 %d건, 게이트웨이 요청 %d건 (속도 제한 대기 %d건), 캐시 적중 %d / 실패 %d%n",
+                    failures.get(), gateway.requests.sum(), gateway.rateLimited.sum(),
+                    resultCache.hits(), resultCache.misses());
+        } finally {
+            commandExecutor.close();
+            scheduler.shutdownNow();
+            stores.close();
+            deleteRecursively(dataDir);
+        }
+    }
+
+    private static void report(String[] commands, long[] latencies, boolean[] rejected, long elapsedNanos) {
+        Map<String, List<Long>> byCommand = new LinkedHashMap<>();
+        Map<String, Integer> rejectedByCommand = new HashMap<>();
+        for (int i = 0; i < commands.length; i++) {
+            List<Long> values = byCommand.computeIfAbsent(commands[i], c -> new ArrayList<>());
+            if (rejected[i]) {
+                rejectedByCommand.merge(commands[i], 1, Integer::sum);
+            } else {
+                values.add(latencies[i]);
+            }
+        }
+
+        System.out.printf("%n%-6s %8s %8s %10s %10s %10s%n", "명령어", "완료", "거절", "p50(ms)", "p99(ms)", "최대(ms)");
+        byCommand.forEach((command, values) -> {
+            long[] sorted = values.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                sorted = new long[1];
+            }
+            System.out.printf("%-6s %8d %8d %10.1f %10.1f %10.1f%n", command, values.size(),
+                    rejectedByCommand.getOrDefault(command, 0),
+                    percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+        });
+        System.out.printf("%n⏱️ 총 %d건, %.1f초, 처리량 %.0f건/초%n", commands.length, elapsedNanos / 1e9,
+                commands.length / (elapsedNanos / 1e9));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("--이름=값 형식이어야 합니다: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("알 수 없는 옵션: " + name + " (사용 가능: " + DEFAULTS.keySet() + ")");
+            }
+            options.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    /** "기록:3,확인:5" 를 가중치만큼 반복한 배열로 바꿔, 난수 하나로 명령어를 고를 수 있게 한다. */
+    private static String[] parseMix(String mix) {
+        List<String> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            weighted.addAll(Collections.nCopies(weight, parts[0]));
+        }
+        return weighted.toArray(String[]::new);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
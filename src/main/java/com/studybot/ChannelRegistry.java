@@ -0,0 +1,160 @@
+package com.studybot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 서버별로 등록된 스터디 채널 목록.
+ * 이벤트 처리 중의 채널 확인은 메모리 맵 조회 한 번으로 끝나며, 변경 사항은 channels.properties 파일에 저장한다.
+ * 멤버 캐시 정책이 이벤트마다 묻는 '이 서버에 스터디 채널이 있는가'도 서버별 맵에서 바로 답한다.
+ */
+public class ChannelRegistry {
+
+    public record StudyChannel(long guildId, long channelId, ZoneId zone) {
+    }
+
+    private final Path file;
+    private final Map<Long, StudyChannel> channels = new ConcurrentHashMap<>();
+    // 서버 ID → 그 서버의 스터디 채널 ID. register/unregister가 channels와 함께 갱신한다.
+    private final Map<Long, Set<Long>> channelsByGuild = new ConcurrentHashMap<>();
+    private final List<BiConsumer<StudyChannel, StudyChannel>> registerListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<StudyChannel>> unregisterListeners = new CopyOnWriteArrayList<>();
+
+    public ChannelRegistry(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                // 형식: 채널ID=서버ID,시간대
+                String[] value = properties.getProperty(key).split(",", 2);
+                long channelId = Long.parseLong(key);
+                put(new StudyChannel(Long.parseLong(value[0]), channelId,
+                        value.length > 1 ? ZoneId.of(value[1]) : StudyBot.KST));
+            }
+        }
+    }
+
+    public StudyChannel get(long channelId) {
+        return channels.get(channelId);
+    }
+
+    public boolean contains(long channelId) {
+        return channels.containsKey(channelId);
+    }
+
+    public Collection<StudyChannel> all() {
+        return List.copyOf(channels.values());
+    }
+
+    public List<StudyChannel> inGuild(long guildId) {
+        Set<Long> channelIds = channelsByGuild.get(guildId);
+        if (channelIds == null) {
+            return List.of();
+        }
+        List<StudyChannel> result = new ArrayList<>(channelIds.size());
+        for (long channelId : channelIds) {
+            StudyChannel channel = channels.get(channelId);
+            if (channel != null) {
+                result.add(channel);
+            }
+        }
+        return result;
+    }
+
+    /** 서버에 스터디 채널이 하나라도 있는지. 할당 없이 맵 조회 한 번으로 끝난다. */
+    public boolean hasGuild(long guildId) {
+        return channelsByGuild.containsKey(guildId);
+    }
+
+    /** 리스너는 (이전 설정, 새 설정)으로 호출되며, 새로 등록된 경우 이전 설정은 null이다. */
+    public void addRegisterListener(BiConsumer<StudyChannel, StudyChannel> listener) {
+        registerListeners.add(listener);
+    }
+
+    public void addUnregisterListener(Consumer<StudyChannel> listener) {
+        unregisterListeners.add(listener);
+    }
+
+    /**
+     * 채널을 등록하거나 시간대를 바꾼다. 새로 등록되었거나 설정이 바뀐 경우에만 등록 리스너를 호출한다.
+     * 새로 등록된 경우에만 true를 돌려준다.
+     */
+    public boolean register(long guildId, long channelId, ZoneId zone) {
+        StudyChannel channel = new StudyChannel(guildId, channelId, zone);
+        StudyChannel previous;
+        synchronized (this) {
+            previous = put(channel);
+            save();
+        }
+        if (!channel.equals(previous)) {
+            registerListeners.forEach(listener -> listener.accept(previous, channel));
+        }
+        return previous == null;
+    }
+
+    public boolean unregister(long channelId) {
+        StudyChannel removed;
+        synchronized (this) {
+            removed = channels.remove(channelId);
+            if (removed != null) {
+                removeFromGuild(removed);
+                save();
+            }
+        }
+        if (removed != null) {
+            unregisterListeners.forEach(listener -> listener.accept(removed));
+        }
+        return removed != null;
+    }
+
+    private StudyChannel put(StudyChannel channel) {
+        StudyChannel previous = channels.put(channel.channelId(), channel);
+        if (previous != null) {
+            removeFromGuild(previous);
+        }
+        channelsByGuild.computeIfAbsent(channel.guildId(), id -> ConcurrentHashMap.newKeySet()).add(channel.channelId());
+        return previous;
+    }
+
+    private void removeFromGuild(StudyChannel channel) {
+        channelsByGuild.computeIfPresent(channel.guildId(), (id, channelIds) -> {
+            channelIds.remove(channel.channelId());
+            return channelIds.isEmpty() ? null : channelIds;
+        });
+    }
+
+    private void save() {
+        Properties properties = new Properties();
+        channels.values().forEach(channel -> properties.setProperty(String.valueOf(channel.channelId()),
+                channel.guildId() + "," + channel.zone().getId()));
+
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                properties.store(out, "study channels: channelId=guildId,zone");
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("❌ 채널 목록 저장 중 오류: " + e.getMessage());
+        }
+    }
+}
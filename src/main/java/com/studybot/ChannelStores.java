@@ -0,0 +1,198 @@
+package com.studybot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * 채널별로 분리된 참여 기록 저장소 모음. 각 채널은 channels/{채널ID}/participation 디렉터리를 사용한다.
+ * 저장소는 acquire로 빌려 쓰고 다 쓰면 돌려준다. 채널을 닫으면 새로 빌려 가지 못하게 한 뒤,
+ * 빌려 간 요청이 모두 돌려준 다음에 실제로 닫는다. 같은 채널을 다시 열려는 요청은 그때까지 기다린다.
+ */
+public class ChannelStores implements AutoCloseable {
+
+    /** 빌려 쓴 저장소. 닫으면 돌려준다. */
+    public final class Lease implements AutoCloseable {
+        private final Entry entry;
+        private final ParticipationStore store;
+
+        private Lease(Entry entry, ParticipationStore store) {
+            this.entry = entry;
+            this.store = store;
+        }
+
+        public ParticipationStore store() {
+            return store;
+        }
+
+        @Override
+        public void close() {
+            release(entry);
+        }
+    }
+
+    private static final class Entry {
+        final long channelId;
+        final CompletableFuture<ParticipationStore> opened = new CompletableFuture<>();
+        final CompletableFuture<Void> closed = new CompletableFuture<>();
+        // 아래 두 필드는 ChannelStores의 잠금으로 보호한다.
+        int users;
+        boolean retired;
+
+        Entry(long channelId) {
+            this.channelId = channelId;
+        }
+    }
+
+    private final Path baseDir;
+    // 열려 있거나 닫히는 중인 저장소. 닫히는 중인 것은 stores에서 빠지고 closing에만 남는다.
+    private final Map<Long, Entry> stores = new HashMap<>();
+    private final Map<Long, Entry> closing = new HashMap<>();
+    private final List<BiConsumer<Long, Set<LocalDate>>> changeListeners = new CopyOnWriteArrayList<>();
+
+    public ChannelStores(Path baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    /**
+     * 단일 채널 시절의 저장소(data/participation)가 있으면 해당 채널의 디렉터리로 옮긴다.
+     */
+    public void migrateLegacy(Path legacyDir, long channelId) throws IOException {
+        Path target = directory(channelId);
+        if (Files.isDirectory(legacyDir) && !Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Files.move(legacyDir, target);
+            System.out.println("📦 기존 참여 기록을 채널 " + channelId + " 저장소로 옮겼습니다.");
+        }
+    }
+
+    /**
+     * 채널 저장소를 빌린다. 처음 빌리는 경우 저장소를 열며, 같은 채널이 닫히는 중이면 다 닫힐 때까지 기다린다.
+     */
+    public Lease acquire(ChannelRegistry.StudyChannel channel) {
+        long id = channel.channelId();
+        while (true) {
+            Entry entry;
+            Entry pending;
+            boolean opener = false;
+            synchronized (this) {
+                entry = stores.get(id);
+                pending = closing.get(id);
+                if (entry == null && pending == null) {
+                    entry = new Entry(id);
+                    stores.put(id, entry);
+                    opener = true;
+                }
+                if (entry != null) {
+                    entry.users++;
+                }
+            }
+            if (entry == null) {
+                pending.closed.join();
+                continue;
+            }
+
+            // 저장소를 여는 동안 다른 채널의 요청이 막히지 않도록 잠금 밖에서 연다.
+            if (opener) {
+                open(entry, channel);
+            }
+            try {
+                return new Lease(entry, entry.opened.join());
+            } catch (CompletionException e) {
+                release(entry);
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+    }
+
+    private void open(Entry entry, ChannelRegistry.StudyChannel channel) {
+        long id = entry.channelId;
+        try {
+            ParticipationStore store = ParticipationStore.open(directory(id), channel.zone());
+            store.addChangeListener(dates -> changeListeners.forEach(listener -> listener.accept(id, dates)));
+            entry.opened.complete(store);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                stores.remove(id, entry);
+            }
+            entry.opened.completeExceptionally(e instanceof IOException io
+                    ? new UncheckedIOException("채널 " + id + " 저장소를 열 수 없습니다", io) : e);
+        }
+    }
+
+    private void release(Entry entry) {
+        synchronized (this) {
+            if (--entry.users > 0 || !entry.retired) {
+                return;
+            }
+        }
+        closeNow(entry);
+    }
+
+    /**
+     * 어느 채널이든 기록이 추가되면 채널 ID, 영향을 받은 날짜와 함께 호출된다.
+     */
+    public void addChangeListener(BiConsumer<Long, Set<LocalDate>> listener) {
+        changeListeners.add(listener);
+    }
+
+    /** HistoryExportTool이 채널 전체 기록을 내보내는 파일 */
+    public Path historyFile(long channelId) {
+        return baseDir.resolve(String.valueOf(channelId)).resolve("history.bin");
+    }
+
+    /**
+     * 채널 저장소를 닫는다. 빌려 간 요청이 남아 있으면 마지막 요청이 돌려줄 때 닫힌다.
+     */
+    public void close(long channelId) {
+        Entry entry;
+        synchronized (this) {
+            entry = stores.remove(channelId);
+            if (entry == null) {
+                return;
+            }
+            entry.retired = true;
+            closing.put(channelId, entry);
+            if (entry.users > 0) {
+                return;
+            }
+        }
+        closeNow(entry);
+    }
+
+    private void closeNow(Entry entry) {
+        try {
+            if (!entry.opened.isCompletedExceptionally()) {
+                entry.opened.join().close();
+            }
+        } finally {
+            synchronized (this) {
+                closing.remove(entry.channelId, entry);
+            }
+            entry.closed.complete(null);
+        }
+    }
+
+    private Path directory(long channelId) {
+        return baseDir.resolve(String.valueOf(channelId)).resolve("participation");
+    }
+
+    @Override
+    public void close() {
+        List<Long> channelIds;
+        synchronized (this) {
+            channelIds = List.copyOf(stores.keySet());
+        }
+        channelIds.forEach(this::close);
+    }
+}
@@ -0,0 +1,36 @@
+package com.studybot;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 채널 준비와 해제처럼 한 채널의 상태를 바꾸는 작업을 채널별로 들어온 순서대로 실행한다.
+ * 다른 채널의 작업은 작업자 풀에서 동시에 진행된다. 앞선 작업이 실패해도 다음 작업은 실행한다.
+ */
+public class ChannelTasks {
+    private final Executor workers;
+    // 채널별로 마지막에 등록된 작업. 다음 작업은 이 작업이 끝난 뒤에 시작한다.
+    private final Map<Long, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public ChannelTasks(Executor workers) {
+        this.workers = workers;
+    }
+
+    public CompletableFuture<Void> run(long channelId, Runnable task) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = tails.put(channelId, done);
+        done.whenComplete((result, error) -> tails.remove(channelId, done));
+
+        CompletableFuture<?> ready = previous == null ? CompletableFuture.completedFuture(null) : previous.exceptionally(error -> null);
+        ready.thenRunAsync(task, workers).whenComplete((result, error) -> {
+            if (error == null) {
+                done.complete(null);
+            } else {
+                done.completeExceptionally(error);
+            }
+        });
+        return done;
+    }
+}
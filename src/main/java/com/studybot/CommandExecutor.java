@@ -0,0 +1,169 @@
+package com.studybot;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 슬래시 명령어 작업 전용 실행기.
+ * 고정 크기 스레드 풀과 제한된 대기열을 쓰고, 명령어별 동시 실행 수를 제한한다.
+ * 한도를 넘은 작업은 명령어별 대기 목록에서 기다리다가 같은 명령어의 작업이 끝나면 이어서 실행되며,
+ * 대기 목록이나 스레드 풀 대기열이 가득 찼을 때만 거절한다.
+ * 같은 키의 작업이 이미 진행 중이면 새로 실행하지 않고 진행 중인 결과를 함께 받는다(single-flight).
+ */
+public class CommandExecutor implements AutoCloseable {
+    /** 명령어 하나의 실행 중인 작업 수와 대기 목록. 필드는 이 객체의 잠금으로 보호한다. */
+    private static final class Gate {
+        final int limit;
+        final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+        int running;
+
+        Gate(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final Map<String, Integer> commandLimits;
+    private final int defaultLimit;
+    private final int waitCapacity;
+    private final Map<String, Gate> gates = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    /** queueCapacity는 스레드 풀 대기열과 명령어별 대기 목록 각각의 크기다. */
+    public CommandExecutor(int threads, int queueCapacity, Map<String, Integer> commandLimits, int defaultLimit) {
+        this.commandLimits = Map.copyOf(commandLimits);
+        this.defaultLimit = defaultLimit;
+        this.waitCapacity = queueCapacity;
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 캐시 토큰을 받아 계산하는 작업용. 같은 key라도 token이 다르면, 즉 무효화 전에 시작된 계산이면 합류하지 않고 새로 실행한다.
+     */
+    public <T> CompletableFuture<T> submit(String command, String key, long token, Supplier<T> task) {
+        return submit(command, key + "@" + token, task);
+    }
+
+    /**
+     * key가 같은 작업이 진행 중이면 그 결과를 공유하고, 아니면 새로 실행한다. 명령어별 한도를 넘으면 대기 목록에 넣는다.
+     * 대기 목록이나 대기열이 가득 찼으면 RejectedExecutionException으로 완료된 future를 돌려준다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(String command, String key, Supplier<T> task) {
+        CompletableFuture<?>[] created = new CompletableFuture<?>[1];
+        CompletableFuture<T> future = (CompletableFuture<T>) inFlight.computeIfAbsent(key, k -> {
+            created[0] = new CompletableFuture<T>();
+            return created[0];
+        });
+        if (created[0] == null) {
+            return future;
+        }
+
+        Gate gate = gates.computeIfAbsent(command, c -> new Gate(commandLimits.getOrDefault(c, defaultLimit)));
+        Runnable start = () -> start(command, key, future, task, gate);
+        synchronized (gate) {
+            if (gate.running < gate.limit) {
+                gate.running++;
+            } else if (gate.waiting.size() < waitCapacity) {
+                gate.waiting.add(start);
+                return future;
+            } else {
+                start = null;
+            }
+        }
+        if (start == null) {
+            reject(command, key, future, new RejectedExecutionException(command + " 명령어 대기 목록이 가득 찼습니다"));
+        } else {
+            start.run();
+        }
+        return future;
+    }
+
+    /** 실행 자리를 하나 차지한 상태에서 호출된다. 끝나면 자리를 대기 중인 다음 작업에 넘기거나 돌려준다. */
+    private <T> void start(String command, String key, CompletableFuture<T> future, Supplier<T> task, Gate gate) {
+        try {
+            pool.execute(() -> {
+                // 결과를 받은 호출자가 곧바로 다시 요청하면 새로 계산하도록, 완료하기 전에 진행 중 목록에서 뺀다.
+                try (Metrics.CommandScope scope = Metrics.command(command)) {
+                    T result = task.get();
+                    inFlight.remove(key, future);
+                    future.complete(result);
+                } catch (Throwable t) {
+                    inFlight.remove(key, future);
+                    future.completeExceptionally(t);
+                } finally {
+                    release(gate);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reject(command, key, future, e);
+            release(gate);
+        }
+    }
+
+    private static void release(Gate gate) {
+        Runnable next;
+        synchronized (gate) {
+            next = gate.waiting.poll();
+            if (next == null) {
+                gate.running--;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    private void reject(String command, String key, CompletableFuture<?> future, RejectedExecutionException e) {
+        Metrics.COMMAND_REJECTED.labels(command).increment();
+        inFlight.remove(key, future);
+        future.completeExceptionally(e);
+    }
+
+    /** 스레드 풀 대기열과 명령어별 대기 목록에서 기다리는 작업 수 */
+    public int queueSize() {
+        int waiting = 0;
+        for (Gate gate : gates.values()) {
+            synchronized (gate) {
+                waiting += gate.waiting.size();
+            }
+        }
+        return pool.getQueue().size() + waiting;
+    }
+
+    public int activeCount() {
+        return pool.getActiveCount();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "study-command-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
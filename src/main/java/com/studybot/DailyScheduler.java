@@ -0,0 +1,180 @@
+package com.studybot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 지정한 시간대의 자정마다 작업을 실행하는 스케줄러.
+ * 매분 깨어나 날짜를 비교하는 대신 다음 자정까지 정확히 잠들고, 작업별로 마지막으로 처리한 날짜를 파일에 기록한다.
+ * 재시작 후에는 처리하지 못한 날짜를 순서대로 다시 실행한다. 처리 완료 후에 기록하므로 최소 한 번(at-least-once) 실행을 보장한다.
+ * 기록이 없는 작업은 등록하는 쪽이 정한 날짜를 마지막 처리 날짜로 삼는다. 새로 등록한 채널은 어제로 두어 다음 자정부터 실행하고,
+ * 상태 파일을 잃은 채 재시작한 채널(디스크가 없는 배포 등)은 그저께로 두어 어제를 다시 실행하므로,
+ * 작업은 같은 날짜를 두 번 실행해도 결과가 한 번만 남도록 만들어야 한다.
+ * 타이머 스레드는 시간만 재고, 작업 자체는 별도의 작업자 풀에서 실행되므로 여러 채널의 작업이 동시에 진행된다.
+ */
+public class DailyScheduler {
+    public static final int MAX_CATCH_UP_DAYS = 7;
+    public static final long RETRY_DELAY_MINUTES = 5;
+
+    @FunctionalInterface
+    public interface DailyJob {
+        /** date: 방금 끝난 날짜 (해당 시간대 기준) */
+        void run(LocalDate date) throws Exception;
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor workers;
+    private final Path stateFile;
+    private final Clock clock;
+    private final Properties state = new Properties();
+    // 작업 ID별 등록 토큰. 취소 후 다시 등록되면 이전 예약은 토큰이 달라 실행되지 않는다.
+    private final Map<String, Object> jobs = new ConcurrentHashMap<>();
+
+    public DailyScheduler(ScheduledExecutorService scheduler, Executor workers, Path stateFile) throws IOException {
+        this(scheduler, workers, stateFile, Clock.systemUTC());
+    }
+
+    DailyScheduler(ScheduledExecutorService scheduler, Executor workers, Path stateFile, Clock clock) throws IOException {
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.stateFile = stateFile;
+        this.clock = clock;
+        if (Files.exists(stateFile)) {
+            try (InputStream in = Files.newInputStream(stateFile)) {
+                state.load(in);
+            }
+        }
+    }
+
+    /**
+     * 작업을 등록하고, 밀린 날짜가 있으면 바로 처리한 뒤 다음 자정에 맞춰 예약한다.
+     * 저장된 기록이 없으면 initialLastProcessed를 마지막으로 처리한 날짜로 기록하고 그다음 날부터 실행한다.
+     */
+    public void schedule(String jobId, ZoneId zone, LocalDate initialLastProcessed, DailyJob job) {
+        Object token = new Object();
+        if (jobs.putIfAbsent(jobId, token) != null) {
+            throw new IllegalStateException("이미 등록된 작업입니다: " + jobId);
+        }
+        if (getLastProcessed(jobId) == null) {
+            setLastProcessed(jobId, initialLastProcessed);
+        }
+        workers.execute(() -> runDue(jobId, token, zone, job));
+    }
+
+    /** 예약만 취소한다. 다시 등록하면 마지막으로 처리한 날짜 다음부터 이어서 실행한다. */
+    public void cancel(String jobId) {
+        jobs.remove(jobId);
+    }
+
+    /** 예약을 취소하고 마지막으로 처리한 날짜도 지운다. 채널 등록을 해제할 때 쓴다. */
+    public void remove(String jobId) {
+        cancel(jobId);
+        synchronized (this) {
+            if (state.remove(jobId) != null) {
+                saveState();
+            }
+        }
+    }
+
+    /** 지금 시각의 zone 기준 날짜 */
+    public LocalDate today(ZoneId zone) {
+        return LocalDate.now(clock.withZone(zone));
+    }
+
+    private void runDue(String jobId, Object token, ZoneId zone, DailyJob job) {
+        if (jobs.get(jobId) != token) {
+            return;
+        }
+        boolean failed = false;
+        try (Metrics.CommandScope scope = Metrics.command(jobKind(jobId))) {
+            LocalDate yesterday = today(zone).minusDays(1);
+            LocalDate next = getLastProcessed(jobId).plusDays(1);
+            if (next.isBefore(yesterday.minusDays(MAX_CATCH_UP_DAYS - 1))) {
+                System.out.println("⏭️ " + jobId + ": " + next + "부터 밀린 작업 중 최근 " + MAX_CATCH_UP_DAYS + "일만 처리합니다.");
+                next = yesterday.minusDays(MAX_CATCH_UP_DAYS - 1);
+            }
+
+            for (LocalDate date = next; !date.isAfter(yesterday) && jobs.get(jobId) == token; date = date.plusDays(1)) {
+                System.out.println("🗓️ " + jobId + ": " + date + " 작업을 실행합니다.");
+                long startNanos = System.nanoTime();
+                job.run(date);
+                Metrics.DAILY_JOB_DURATION.labels(jobKind(jobId)).observeSince(startNanos);
+                recordIfCurrent(jobId, token, date);
+            }
+        } catch (Exception e) {
+            Metrics.DAILY_JOB_FAILURES.labels(jobKind(jobId)).increment();
+            System.err.println("일일 작업 실행 중 오류 발생 (" + jobId + "): " + e.getMessage());
+            e.printStackTrace();
+            failed = true;
+        } finally {
+            scheduleNext(jobId, token, zone, job, failed);
+        }
+    }
+
+    /** 지표 라벨이 채널 수만큼 늘어나지 않도록 "absence:123"에서 앞부분만 쓴다. */
+    private static String jobKind(String jobId) {
+        int separator = jobId.indexOf(':');
+        return separator < 0 ? jobId : jobId.substring(0, separator);
+    }
+
+    private void scheduleNext(String jobId, Object token, ZoneId zone, DailyJob job, boolean retry) {
+        if (scheduler.isShutdown() || jobs.get(jobId) != token) {
+            return;
+        }
+        Runnable next = () -> workers.execute(() -> runDue(jobId, token, zone, job));
+        if (retry) {
+            // 실패한 날짜는 기록되지 않았으므로 잠시 후 그 날짜부터 다시 시도한다.
+            scheduler.schedule(next, RETRY_DELAY_MINUTES, TimeUnit.MINUTES);
+            return;
+        }
+        ZonedDateTime now = ZonedDateTime.now(clock.withZone(zone));
+        ZonedDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay(zone);
+        long delayMillis = Math.max(Duration.between(now, nextMidnight).toMillis(), 0);
+        scheduler.schedule(next, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized LocalDate getLastProcessed(String jobId) {
+        String value = state.getProperty(jobId);
+        return value == null ? null : LocalDate.parse(value);
+    }
+
+    /** 실행 중에 등록이 해제됐으면 지운 기록을 되살리지 않는다. */
+    private synchronized void recordIfCurrent(String jobId, Object token, LocalDate date) {
+        if (jobs.get(jobId) == token) {
+            setLastProcessed(jobId, date);
+        }
+    }
+
+    private synchronized void setLastProcessed(String jobId, LocalDate date) {
+        state.setProperty(jobId, date.toString());
+        saveState();
+    }
+
+    private synchronized void saveState() {
+        Path tempFile = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(stateFile.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                state.store(out, "last processed date per daily job");
+            }
+            Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("❌ 스케줄러 상태 저장 중 오류: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.studybot;
+
+import com.studybot.ChannelRegistry.StudyChannel;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.EnumSet;
+
+/**
+ * 채널 전체 기록을 처음부터 페이지 단위로 읽어 {@link HistoryFile}로 내보내는 명령줄 도구.
+ * 한 페이지씩만 메모리에 두고 바로 임시 파일에 쓰므로 채널 크기와 관계없이 메모리 사용량이 일정하다.
+ * 중단되면 다시 실행했을 때 마지막으로 읽은 메시지 다음부터 이어서 읽는다.
+ *
+ * <pre>
+ * DISCORD_BOT_TOKEN=... java -cp app.jar com.studybot.HistoryExportTool &lt;채널ID&gt; [출력 파일]
+ * </pre>
+ *
+ * 출력 파일을 지정하지 않으면 봇이 시작할 때 읽는 위치(DATA_DIR/channels/&lt;채널ID&gt;/history.bin)에 쓴다.
+ */
+public final class HistoryExportTool {
+    private static final String BOT_TOKEN = System.getenv("DISCORD_BOT_TOKEN");
+
+    private HistoryExportTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("사용법: HistoryExportTool <채널ID> [출력 파일]");
+            System.exit(2);
+        }
+        if (BOT_TOKEN == null || BOT_TOKEN.isEmpty()) {
+            System.err.println("필수 환경변수(DISCORD_BOT_TOKEN)가 설정되지 않았습니다!");
+            System.exit(2);
+        }
+        long channelId = Long.parseLong(args[0]);
+
+        // 봇에 등록된 채널이면 그 시간대로 날짜를 계산한다.
+        StudyChannel studyChannel = new ChannelRegistry(StudyBot.DATA_DIR.resolve("channels.properties")).get(channelId);
+        ZoneId zone = studyChannel != null ? studyChannel.zone() : StudyBot.KST;
+        Path output = args.length > 1 ? Path.of(args[1])
+                : new ChannelStores(StudyBot.DATA_DIR.resolve("channels")).historyFile(channelId);
+
+        // 기록 조회만 하므로 멤버 캐시 없이 메시지 인텐트만 켠다.
+        ShardManager shardManager = DefaultShardManagerBuilder
+                .createLight(BOT_TOKEN, EnumSet.of(GatewayIntent.GUILD_MESSAGES))
+                .build();
+        try {
+            for (JDA shard : shardManager.getShards()) {
+                shard.awaitReady();
+            }
+            // 메시지를 보내지 않으므로 전송 파이프라인은 필요 없다.
+            export(new JdaGateway(shardManager, null), channelId, output, zone);
+        } finally {
+            shardManager.shutdown();
+        }
+    }
+
+    /**
+     * 체크포인트(없으면 채널의 첫 메시지) 이후의 기록을 끝까지 읽어 output에 쓴다.
+     * 돌려주는 값은 파일에 담긴 전체 기록 수다.
+     */
+    public static int export(StudyGateway gateway, long channelId, Path output, ZoneId zone) throws IOException {
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(output, zone)) {
+            if (journal.lastMessageId() != 0) {
+                System.out.println("⏩ 이전 내보내기를 이어서 진행합니다: 기록 " + journal.size() + "건, 메시지 "
+                        + journal.lastMessageId() + " 이후");
+            }
+
+            long cursor = journal.lastMessageId();
+            int pages = 0;
+            while (true) {
+                StudyGateway.HistoryPage page = gateway.historyAfter(channelId, cursor, HistoryRangeQuery.PAGE_SIZE);
+                if (page.isEmpty() || page.newestMessageId() <= cursor) {
+                    break;
+                }
+                journal.append(page.records(), page.newestMessageId());
+                cursor = page.newestMessageId();
+                if (++pages % 100 == 0) {
+                    System.out.println("📥 " + pages + "페이지 읽음, 기록 " + journal.size() + "건");
+                }
+                if (page.messageCount() < HistoryRangeQuery.PAGE_SIZE) {
+                    break;
+                }
+            }
+
+            journal.finish();
+            System.out.println("✅ 기록 " + journal.size() + "건을 내보냈습니다: " + output);
+            return journal.size();
+        }
+    }
+}
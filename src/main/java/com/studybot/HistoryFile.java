@@ -0,0 +1,376 @@
+package com.studybot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * 채널 전체 기록을 내보낸 열 단위(columnar) 바이너리 파일.
+ * 헤더 뒤에 메시지 ID, 사용자 ID, 타임스탬프, 날짜(epoch day), 내용 오프셋 열이 차례로 오고 마지막에 UTF-8 내용이 이어진다.
+ * 열의 위치는 행 수만으로 정해지므로 파일 전체를 한 번 mmap한 뒤 위치 계산만으로 읽는다.
+ *
+ * <pre>
+ * 0  int  magic        4  int version     8  int rows     12 int contentLength
+ * 16 long lastMessageId (내보내기가 마지막으로 읽은 메시지, 기록이 아니어도 된다)
+ * 24 long crc (헤더 뒤 전체)  32 byte[32] 시간대 ID
+ * 64 long[rows] messageId | long[rows] userId | long[rows] timestamp | int[rows] epochDay | int[rows + 1] contentOffset | 내용
+ * </pre>
+ *
+ * 내보내는 동안에는 행 단위 임시 파일(.part)에 페이지마다 이어 쓰고, 체크포인트(.checkpoint)에 마지막 메시지 ID를 남겨
+ * 중단되어도 그 지점부터 이어서 읽는다. 끝까지 읽으면 임시 파일을 열 단위 파일로 바꾼다.
+ */
+public final class HistoryFile implements AutoCloseable {
+    private static final int MAGIC = 0x53485354;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int ZONE_SIZE = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final long lastMessageId;
+    private final ZoneId zone;
+    private final int userIdColumn;
+    private final int timestampColumn;
+    private final int epochDayColumn;
+    private final int offsetColumn;
+    private final int contentStart;
+
+    private HistoryFile(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("기록 파일 형식이 아닙니다");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("지원하지 않는 기록 파일 버전: " + buffer.getInt(4));
+        }
+        this.rows = buffer.getInt(8);
+        int contentLength = buffer.getInt(12);
+        this.lastMessageId = buffer.getLong(16);
+
+        byte[] zoneBytes = new byte[ZONE_SIZE];
+        buffer.get(32, zoneBytes);
+        this.zone = ZoneId.of(new String(zoneBytes, StandardCharsets.UTF_8).trim());
+
+        this.userIdColumn = HEADER_SIZE + rows * 8;
+        this.timestampColumn = userIdColumn + rows * 8;
+        this.epochDayColumn = timestampColumn + rows * 8;
+        this.offsetColumn = epochDayColumn + rows * 4;
+        this.contentStart = offsetColumn + (rows + 1) * 4;
+        if ((long) contentStart + contentLength != buffer.capacity()) {
+            throw new IOException("기록 파일 크기가 맞지 않습니다");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        if (crc.getValue() != buffer.getLong(24)) {
+            throw new IOException("체크섬 불일치");
+        }
+    }
+
+    /**
+     * 파일 전체를 읽기 전용으로 mmap한다. 형식이나 체크섬이 맞지 않으면 IOException을 던진다.
+     */
+    public static HistoryFile open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("기록 파일이 너무 큽니다: " + channel.size() + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new HistoryFile(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public long lastMessageId() {
+        return lastMessageId;
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    public long messageId(int row) {
+        return buffer.getLong(HEADER_SIZE + row * 8);
+    }
+
+    public long userId(int row) {
+        return buffer.getLong(userIdColumn + row * 8);
+    }
+
+    public long timestamp(int row) {
+        return buffer.getLong(timestampColumn + row * 8);
+    }
+
+    public LocalDate date(int row) {
+        return LocalDate.ofEpochDay(buffer.getInt(epochDayColumn + row * 4));
+    }
+
+    public String content(int row) {
+        int start = buffer.getInt(offsetColumn + row * 4);
+        int end = buffer.getInt(offsetColumn + (row + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(contentStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public StudyRecord record(int row) {
+        return new StudyRecord(messageId(row), userId(row), timestamp(row), content(row));
+    }
+
+    /** 모든 행을 메시지 ID 순서대로 기록으로 만든다. */
+    public List<StudyRecord> records() {
+        List<StudyRecord> records = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            records.add(record(row));
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 내보내는 중인 행 단위 임시 파일. 페이지를 이어 쓸 때마다 디스크에 반영하고 체크포인트를 원자적으로 교체한다.
+     */
+    public static final class Journal implements AutoCloseable {
+        private final Path output;
+        private final Path partFile;
+        private final Path checkpointFile;
+        private final ZoneId zone;
+        private final FileChannel part;
+        private final DataOutputStream data;
+        private long lastMessageId;
+        private int rows;
+
+        private Journal(Path output, ZoneId zone) throws IOException {
+            this.output = output;
+            this.partFile = output.resolveSibling(output.getFileName() + ".part");
+            this.checkpointFile = output.resolveSibling(output.getFileName() + ".checkpoint");
+            this.zone = zone;
+            Files.createDirectories(output.toAbsolutePath().getParent());
+
+            long length = 0;
+            if (Files.exists(checkpointFile) && Files.exists(partFile)) {
+                Properties checkpoint = new Properties();
+                try (InputStream in = Files.newInputStream(checkpointFile)) {
+                    checkpoint.load(in);
+                }
+                lastMessageId = Long.parseLong(checkpoint.getProperty("lastMessageId"));
+                rows = Integer.parseInt(checkpoint.getProperty("rows"));
+                length = Long.parseLong(checkpoint.getProperty("length"));
+            }
+
+            this.part = FileChannel.open(partFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // 체크포인트 이후에 쓰다 만 부분은 버린다.
+            part.truncate(length);
+            part.position(length);
+            this.data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(part)));
+        }
+
+        /**
+         * 중단된 내보내기가 있으면 그 지점부터, 완성된 파일이 있으면 그 내용을 옮겨 담은 뒤 마지막 메시지 다음부터 이어 간다.
+         */
+        public static Journal resume(Path output, ZoneId zone) throws IOException {
+            Journal journal = new Journal(output, zone);
+            if (journal.lastMessageId == 0 && Files.exists(output)) {
+                try (HistoryFile existing = open(output)) {
+                    List<StudyRecord> page = new ArrayList<>(HistoryRangeQuery.PAGE_SIZE);
+                    for (int row = 0; row < existing.size(); row++) {
+                        page.add(existing.record(row));
+                        if (page.size() == HistoryRangeQuery.PAGE_SIZE) {
+                            journal.append(page, existing.messageId(row));
+                            page.clear();
+                        }
+                    }
+                    journal.append(page, existing.lastMessageId());
+                }
+            }
+            return journal;
+        }
+
+        public long lastMessageId() {
+            return lastMessageId;
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        /** 한 페이지의 기록을 이어 쓰고, lastMessageId까지 읽었음을 체크포인트에 남긴다. */
+        public void append(List<StudyRecord> records, long lastMessageId) throws IOException {
+            for (StudyRecord record : records) {
+                data.writeLong(record.messageId());
+                data.writeLong(record.userId());
+                data.writeLong(record.timestamp());
+                data.writeUTF(record.content());
+            }
+            data.flush();
+            part.force(false);
+            this.rows += records.size();
+            this.lastMessageId = Math.max(this.lastMessageId, lastMessageId);
+
+            Properties checkpoint = new Properties();
+            checkpoint.setProperty("lastMessageId", String.valueOf(this.lastMessageId));
+            checkpoint.setProperty("rows", String.valueOf(rows));
+            checkpoint.setProperty("length", String.valueOf(part.position()));
+            Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            try (var out = Files.newOutputStream(tempFile)) {
+                checkpoint.store(out, "history export checkpoint");
+            }
+            Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /**
+         * 임시 파일을 한 번 순서대로 읽으며 열 단위 파일을 쓰고, 완성되면 임시 파일과 체크포인트를 지운다.
+         * 열마다 작은 버퍼만 두므로 기록 수와 관계없이 메모리 사용량이 일정하다.
+         */
+        public void finish() throws IOException {
+            data.flush();
+            part.force(true);
+            byte[] zoneBytes = zone.getId().getBytes(StandardCharsets.UTF_8);
+            if (zoneBytes.length > ZONE_SIZE) {
+                throw new IOException("시간대 ID가 너무 깁니다: " + zone.getId());
+            }
+
+            long userIdColumn = HEADER_SIZE + (long) rows * 8;
+            long timestampColumn = userIdColumn + (long) rows * 8;
+            long epochDayColumn = timestampColumn + (long) rows * 8;
+            long offsetColumn = epochDayColumn + (long) rows * 4;
+            long contentStart = offsetColumn + (long) (rows + 1) * 4;
+
+            Path tempFile = output.resolveSibling(output.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(partFile)))) {
+                ColumnWriter messageIds = new ColumnWriter(out, HEADER_SIZE);
+                ColumnWriter userIds = new ColumnWriter(out, userIdColumn);
+                ColumnWriter timestamps = new ColumnWriter(out, timestampColumn);
+                ColumnWriter epochDays = new ColumnWriter(out, epochDayColumn);
+                ColumnWriter offsets = new ColumnWriter(out, offsetColumn);
+                ColumnWriter contents = new ColumnWriter(out, contentStart);
+
+                int contentLength = 0;
+                for (int row = 0; row < rows; row++) {
+                    StudyRecord record;
+                    try {
+                        record = new StudyRecord(in.readLong(), in.readLong(), in.readLong(), in.readUTF());
+                    } catch (EOFException e) {
+                        throw new IOException("내보내기 임시 파일이 잘렸습니다 (" + row + "/" + rows + ")", e);
+                    }
+                    byte[] content = record.content().getBytes(StandardCharsets.UTF_8);
+                    messageIds.putLong(record.messageId());
+                    userIds.putLong(record.userId());
+                    timestamps.putLong(record.timestamp());
+                    epochDays.putInt((int) record.date(zone).toEpochDay());
+                    offsets.putInt(contentLength);
+                    contents.put(content);
+                    contentLength = Math.addExact(contentLength, content.length);
+                }
+                offsets.putInt(contentLength);
+                for (ColumnWriter column : List.of(messageIds, userIds, timestamps, epochDays, offsets, contents)) {
+                    column.flush();
+                }
+
+                CRC32 crc = new CRC32();
+                crc.update(out.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, out.size() - HEADER_SIZE));
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(contentLength)
+                        .putLong(lastMessageId).putLong(crc.getValue()).put(zoneBytes).clear();
+                while (header.hasRemaining()) {
+                    out.write(header, header.position());
+                }
+                out.force(true);
+            }
+            Files.move(tempFile, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            close();
+            Files.deleteIfExists(partFile);
+            Files.deleteIfExists(checkpointFile);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (part.isOpen()) {
+                data.flush();
+                part.close();
+            }
+        }
+    }
+
+    /** 파일의 정해진 위치부터 한 열을 순서대로 채우는 버퍼 */
+    private static final class ColumnWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private long position;
+
+        ColumnWriter(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int written = 0; written < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, length);
+                written += length;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.utils.TimeUtil;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 날짜 범위를 디스코드 스노우플레이크 ID 범위로 바꿔, 해당 구간의 메시지만 앞으로(오래된 → 최신) 페이지 단위로 읽는다.
+ * 범위 끝을 넘는 메시지를 만나면 즉시 멈추므로 비용은 구간 안의 메시지 수에만 비례한다.
+ */
+public final class HistoryRangeQuery {
+    public static final int PAGE_SIZE = 100;
+
+    private static final Metrics.Histogram RANGE_PAGES = Metrics.HISTORY_PAGES.labels("range");
+    private static final Metrics.Histogram BACKFILL_PAGES = Metrics.HISTORY_PAGES.labels("backfill");
+
+    /** 최근 기록부터 거슬러 읽은 결과. coveredSince 이후의 날짜는 빠짐없이 읽었다. */
+    public record Backfill(List<StudyRecord> records, LocalDate coveredSince) {
+    }
+
+    private HistoryRangeQuery() {
+    }
+
+    public static long toSnowflake(Instant instant) {
+        return TimeUtil.getDiscordTimestamp(instant.toEpochMilli());
+    }
+
+    public static Instant toInstant(long snowflake) {
+        return TimeUtil.getTimeCreated(snowflake).toInstant();
+    }
+
+    public static long startOfDay(LocalDate date, ZoneId zone) {
+        return toSnowflake(date.atStartOfDay(zone).toInstant());
+    }
+
+    /**
+     * 저장소가 해당 날짜를 빠짐없이 갖고 있지 않으면 그날 하루치만 조회해 채운다.
+     */
+    public static void fillIfMissing(ParticipationStore store, StudyGateway gateway, long channelId, LocalDate date) {
+        if (!store.isCovered(date)) {
+            store.fillDay(date, fetchDay(gateway, channelId, date, store.zone()));
+        }
+    }
+
+    /**
+     * from부터 to까지 저장소가 빠짐없이 갖고 있지 않은 날짜가 있으면, 그 첫날부터 마지막 날까지를 한 번에 조회해 채운다.
+     */
+    public static void fillRangeIfMissing(ParticipationStore store, StudyGateway gateway, long channelId,
+                                          LocalDate from, LocalDate to) {
+        LocalDate first = null;
+        LocalDate last = null;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!store.isCovered(date)) {
+                first = first == null ? date : first;
+                last = date;
+            }
+        }
+        if (first != null) {
+            ZoneId zone = store.zone();
+            store.fillDays(first, last, fetchRange(gateway, channelId, startOfDay(first, zone) - 1,
+                    startOfDay(last.plusDays(1), zone) - 1));
+        }
+    }
+
+    /**
+     * 지정한 시간대 기준 하루 동안 게시된 스터디 기록을 가져온다.
+     */
+    public static List<StudyRecord> fetchDay(StudyGateway gateway, long channelId, LocalDate date, ZoneId zone) {
+        // 다음 날 0시의 스노우플레이크 직전까지가 해당 날짜의 범위다.
+        return fetchRange(gateway, channelId, startOfDay(date, zone) - 1, startOfDay(date.plusDays(1), zone) - 1);
+    }
+
+    /**
+     * 지정한 메시지 이후로 게시된 스터디 기록을 현재까지 모두 가져온다.
+     */
+    public static List<StudyRecord> fetchAfter(StudyGateway gateway, long channelId, long afterMessageId) {
+        return fetchRange(gateway, channelId, afterMessageId, Long.MAX_VALUE);
+    }
+
+    /**
+     * afterId 초과, untilId 이하인 메시지 중 스터디 기록만 골라 오래된 순서로 돌려준다.
+     */
+    public static List<StudyRecord> fetchRange(StudyGateway gateway, long channelId, long afterId, long untilId) {
+        List<StudyRecord> records = new ArrayList<>();
+        long cursor = afterId;
+        int pages = 0;
+
+        while (true) {
+            StudyGateway.HistoryPage page = gateway.historyAfter(channelId, cursor, PAGE_SIZE);
+            pages++;
+            if (page.isEmpty()) {
+                break;
+            }
+
+            for (StudyRecord record : page.records()) {
+                if (record.messageId() <= untilId) {
+                    records.add(record);
+                }
+            }
+
+            if (page.newestMessageId() > untilId || page.messageCount() < PAGE_SIZE || page.newestMessageId() <= cursor) {
+                break;
+            }
+            cursor = page.newestMessageId();
+        }
+        RANGE_PAGES.observe(pages);
+        return records;
+    }
+
+    /**
+     * 가장 최근 메시지부터 거슬러 올라가며 최대 limit개의 메시지를 읽는다.
+     * 한도에 걸려 멈췄다면 가장 오래된 메시지의 날짜는 일부만 읽었으므로 그 다음 날부터 완전한 것으로 본다.
+     */
+    public static Backfill fetchLatest(StudyGateway gateway, long channelId, int limit, ZoneId zone) {
+        List<StudyRecord> records = new ArrayList<>();
+        // 아직 만들어지지 않은 미래의 ID보다 앞의 메시지 = 채널의 모든 메시지
+        long cursor = toSnowflake(Instant.now().plusSeconds(60));
+        int pages = 0;
+        boolean reachedBeginning = false;
+
+        for (int read = 0; read < limit; read += PAGE_SIZE) {
+            StudyGateway.HistoryPage page = gateway.historyBefore(channelId, cursor, PAGE_SIZE);
+            pages++;
+            records.addAll(page.records());
+            if (page.messageCount() < PAGE_SIZE) {
+                reachedBeginning = true;
+                break;
+            }
+            cursor = page.oldestMessageId();
+        }
+        BACKFILL_PAGES.observe(pages);
+
+        LocalDate coveredSince = reachedBeginning
+                ? LocalDate.MIN
+                : toInstant(cursor).atZone(zone).toLocalDate().plusDays(1);
+        return new Backfill(records, coveredSince);
+    }
+}
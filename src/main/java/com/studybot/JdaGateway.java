@@ -0,0 +1,135 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
+import net.dv8tion.jda.api.sharding.ShardManager;
+
+import java.awt.Color;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * JDA로 실제 디스코드에 접근하는 게이트웨이.
+ */
+public class JdaGateway implements StudyGateway {
+    private final ShardManager shardManager;
+    private final OutboundPipeline outbound;
+
+    public JdaGateway(ShardManager shardManager, OutboundPipeline outbound) {
+        this.shardManager = shardManager;
+        this.outbound = outbound;
+    }
+
+    @Override
+    public HistoryPage historyAfter(long channelId, long afterId, int limit) {
+        TextChannel channel = channel(channelId);
+        countRequest("history");
+        return toPage(channel.getHistoryAfter(afterId, limit).complete().getRetrievedHistory(), selfUser());
+    }
+
+    @Override
+    public HistoryPage historyBefore(long channelId, long beforeId, int limit) {
+        TextChannel channel = channel(channelId);
+        countRequest("history");
+        return toPage(channel.getHistoryBefore(beforeId, limit).complete().getRetrievedHistory(), selfUser());
+    }
+
+    private static HistoryPage toPage(List<Message> messages, User selfUser) {
+        List<StudyRecord> records = new ArrayList<>();
+        long oldest = Long.MAX_VALUE;
+        long newest = 0;
+        // getRetrievedHistory()는 최신 메시지가 앞에 오므로 역순으로 읽어 오래된 순서를 유지한다.
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Message message = messages.get(i);
+            oldest = Math.min(oldest, message.getIdLong());
+            newest = Math.max(newest, message.getIdLong());
+            StudyRecord.fromMessage(message, selfUser).ifPresent(records::add);
+        }
+        return new HistoryPage(records, messages.size(), messages.isEmpty() ? 0 : oldest, newest);
+    }
+
+    @Override
+    public List<String> ownMessagesAfter(long channelId, long afterId, int maxMessages) {
+        TextChannel channel = channel(channelId);
+        User selfUser = selfUser();
+        List<String> contents = new ArrayList<>();
+        long cursor = afterId;
+        for (int read = 0; read < maxMessages; ) {
+            countRequest("history");
+            List<Message> messages = channel.getHistoryAfter(cursor, Math.min(HistoryRangeQuery.PAGE_SIZE, maxMessages - read))
+                    .complete().getRetrievedHistory();
+            if (messages.isEmpty()) {
+                break;
+            }
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                Message message = messages.get(i);
+                cursor = Math.max(cursor, message.getIdLong());
+                if (message.getAuthor().equals(selfUser) && message.getEmbeds().isEmpty()) {
+                    contents.add(message.getContentRaw());
+                }
+            }
+            read += messages.size();
+        }
+        return contents;
+    }
+
+    @Override
+    public List<RosterMember> loadMembers(long guildId) {
+        Guild guild = shardManager.getGuildById(guildId);
+        if (guild == null) {
+            throw new IllegalStateException("서버를 찾을 수 없습니다: " + guildId);
+        }
+        return guild.loadMembers().get().stream()
+                .filter(member -> !member.getUser().isBot())
+                .map(RosterMember::of)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CompletableFuture<StudyRecord> postRecord(long channelId, Author author, String content, Instant createdAt) {
+        EmbedBuilder eb = new EmbedBuilder()
+                .setAuthor(author.name(), null, author.avatarUrl())
+                .setColor(new Color(0x3BA55D))
+                .setDescription(content)
+                .setFooter(StudyRecord.FOOTER_PREFIX + author.userId())
+                .setTimestamp(createdAt);
+
+        countRequest("record");
+        return channel(channelId).sendMessageEmbeds(eb.build()).submit()
+                .thenApply(message -> new StudyRecord(message.getIdLong(), author.userId(),
+                        message.getTimeCreated().toInstant().toEpochMilli(), content));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendMessages(String route, long channelId, List<String> contents) {
+        TextChannel channel = channel(channelId);
+        List<MessageCreateAction> messages = contents.stream()
+                .map(content -> channel.sendMessage(content).setAllowedMentions(List.of(Message.MentionType.USER)))
+                .collect(Collectors.toList());
+        return outbound.submit(route, channelId, messages);
+    }
+
+    /** 요청을 일으킨 명령어(Metrics.command 범위)별로 센다. */
+    private static void countRequest(String route) {
+        Metrics.REST_REQUESTS.labels(route, Metrics.currentCommand()).increment();
+    }
+
+    private TextChannel channel(long channelId) {
+        TextChannel channel = shardManager.getTextChannelById(channelId);
+        if (channel == null) {
+            throw new IllegalStateException("스터디 채널을 찾을 수 없습니다: " + channelId);
+        }
+        return channel;
+    }
+
+    private User selfUser() {
+        return shardManager.getShards().get(0).getSelfUser();
+    }
+}
@@ -0,0 +1,277 @@
+package com.studybot;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * 봇 전체에서 쓰는 지표 모음. Prometheus 텍스트 형식으로 내보낸다.
+ * 기록(카운터 증가, 히스토그램 관측)은 LongAdder/AtomicLongArray만 사용하므로 잠금이나 객체 할당이 없다.
+ * 라벨이 붙은 지표는 처음 한 번만 자식을 만들고, 호출하는 쪽에서 static 필드로 잡아 두고 쓴다.
+ * REST 요청 지표는 경로와 함께 그 요청을 일으킨 명령어(또는 자정 작업)로도 나뉘며, 명령어는 스레드별 범위(CommandScope)로 전달한다.
+ */
+public final class Metrics {
+    /** 명령어 범위 밖에서 보낸 요청의 command 라벨 */
+    public static final String NO_COMMAND = "none";
+
+    public static final Family<Histogram> COMMAND_DURATION = new Family<>("studybot_command_duration_seconds",
+            "슬래시 명령어를 받은 뒤 응답 내용이 준비될 때까지 걸린 시간", "histogram", "command", label -> new Histogram());
+    public static final Family<Counter> COMMAND_REJECTED = new Family<>("studybot_command_rejected_total",
+            "대기 목록이나 대기열이 가득 차 거절된 명령어 수", "counter", "command", label -> new Counter());
+    public static final Family<Counter> REST_REQUESTS = new Family<>("studybot_rest_requests_total",
+            "봇이 보낸 디스코드 REST 요청 수", "counter", "route", "command", label -> new Counter());
+    public static final Family<Counter> REST_FAILURES = new Family<>("studybot_rest_failures_total",
+            "재시도 후에도 실패한 디스코드 REST 요청 수", "counter", "route", "command", label -> new Counter());
+    public static final Family<Counter> REST_RETRIES = new Family<>("studybot_rest_retries_total",
+            "디스코드에 닿기 전에 연결이 실패해 다시 보낸 REST 요청 수", "counter", "route", "command", label -> new Counter());
+    public static final Family<Histogram> HISTORY_PAGES = new Family<>("studybot_history_pages",
+            "채널 기록 조회 한 번에 읽은 페이지 수", "histogram", "caller", label -> new Histogram(Histogram.PAGE_BUCKETS, 1));
+    public static final Family<Counter> CACHE_HITS = new Family<>("studybot_result_cache_hits_total",
+            "명령어 결과 캐시 적중 수", "counter", "cache", label -> new Counter());
+    public static final Family<Counter> CACHE_MISSES = new Family<>("studybot_result_cache_misses_total",
+            "명령어 결과 캐시 실패 수", "counter", "cache", label -> new Counter());
+    public static final Family<Histogram> ROSTER_LOAD_DURATION = new Family<>("studybot_roster_load_duration_seconds",
+            "서버 멤버 명단을 불러오는 데 걸린 시간", "histogram", "trigger", label -> new Histogram());
+    public static final Family<Histogram> DAILY_JOB_DURATION = new Family<>("studybot_daily_job_duration_seconds",
+            "자정 작업 하루치 실행 시간", "histogram", "job", label -> new Histogram());
+    public static final Family<Counter> DAILY_JOB_FAILURES = new Family<>("studybot_daily_job_failures_total",
+            "실패해 재시도가 예약된 자정 작업 수", "counter", "job", label -> new Counter());
+
+    private static final Family<?>[] FAMILIES = {
+            COMMAND_DURATION, COMMAND_REJECTED, REST_REQUESTS, REST_FAILURES, REST_RETRIES,
+            HISTORY_PAGES, CACHE_HITS, CACHE_MISSES, ROSTER_LOAD_DURATION, DAILY_JOB_DURATION, DAILY_JOB_FAILURES,
+    };
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> CURRENT_COMMAND = ThreadLocal.withInitial(() -> NO_COMMAND);
+
+    private Metrics() {
+    }
+
+    /**
+     * 닫을 때까지 이 스레드에서 보내는 REST 요청을 command로 집계한다. 범위는 중첩할 수 있다.
+     */
+    public static CommandScope command(String command) {
+        String previous = CURRENT_COMMAND.get();
+        CURRENT_COMMAND.set(command);
+        return new CommandScope(previous);
+    }
+
+    /** 지금 스레드의 명령어 범위. 범위 밖이면 NO_COMMAND */
+    public static String currentCommand() {
+        return CURRENT_COMMAND.get();
+    }
+
+    public static final class CommandScope implements AutoCloseable {
+        private final String previous;
+
+        private CommandScope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            CURRENT_COMMAND.set(previous);
+        }
+    }
+
+    /**
+     * 스크랩할 때마다 값을 읽어 가는 게이지를 등록한다. 같은 이름으로 다시 등록하면 덮어쓴다.
+     */
+    public static void gauge(String name, String help, DoubleSupplier value) {
+        GAUGES.put(name, new Gauge(help, value));
+    }
+
+    public static void removeGauge(String name) {
+        GAUGES.remove(name);
+    }
+
+    /** 현재 값을 Prometheus 텍스트 형식(0.0.4)으로 만든다. */
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family<?> family : FAMILIES) {
+            family.writeTo(out);
+        }
+        new TreeMap<>(GAUGES).forEach((name, gauge) -> {
+            header(out, name, gauge.help, "gauge");
+            out.append(name).append(' ').append(format(gauge.value.getAsDouble())).append('\n');
+        });
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == (long) value) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record Gauge(String help, DoubleSupplier value) {
+    }
+
+    interface Writable {
+        void write(StringBuilder out, String name, String labels);
+    }
+
+    /**
+     * 라벨 하나나 둘로 나뉘는 같은 종류의 지표 묶음. 라벨이 둘이면 첫 라벨, 둘째 라벨 순으로 두 번 찾는다.
+     */
+    public static final class Family<T extends Writable> {
+        private record Child<T>(String labels, T metric) {
+        }
+
+        private final String name;
+        private final String help;
+        private final String type;
+        private final String labelName;
+        private final String secondLabelName;
+        private final Function<String, T> factory;
+        private final Map<String, Map<String, T>> children = new ConcurrentHashMap<>();
+        private final CopyOnWriteArrayList<Child<T>> order = new CopyOnWriteArrayList<>();
+
+        private Family(String name, String help, String type, String labelName, Function<String, T> factory) {
+            this(name, help, type, labelName, null, factory);
+        }
+
+        private Family(String name, String help, String type, String labelName, String secondLabelName,
+                       Function<String, T> factory) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labelName = labelName;
+            this.secondLabelName = secondLabelName;
+            this.factory = factory;
+        }
+
+        /** 라벨 값에 해당하는 지표. 이미 있으면 할당 없이 돌려준다. 라벨이 둘인 묶음에서는 둘째 라벨이 NO_COMMAND가 된다. */
+        public T labels(String value) {
+            return labels(value, NO_COMMAND);
+        }
+
+        /** 두 라벨 값에 해당하는 지표. 이미 있으면 할당 없이 돌려준다. 라벨이 하나인 묶음에서는 second를 무시한다. */
+        public T labels(String first, String second) {
+            String key = secondLabelName == null ? "" : second;
+            Map<String, T> byFirst = children.get(first);
+            T child = byFirst == null ? null : byFirst.get(key);
+            if (child != null) {
+                return child;
+            }
+            synchronized (this) {
+                byFirst = children.computeIfAbsent(first, value -> new ConcurrentHashMap<>());
+                child = byFirst.get(key);
+                if (child == null) {
+                    child = factory.apply(first);
+                    byFirst.put(key, child);
+                    String labels = labelName + "=\"" + escape(first) + "\""
+                            + (secondLabelName == null ? "" : "," + secondLabelName + "=\"" + escape(key) + "\"");
+                    order.add(new Child<>(labels, child));
+                }
+                return child;
+            }
+        }
+
+        private void writeTo(StringBuilder out) {
+            if (order.isEmpty()) {
+                return;
+            }
+            header(out, name, help, type);
+            for (Child<T> child : order) {
+                child.metric().write(out, name, child.labels());
+            }
+        }
+    }
+
+    public static final class Counter implements Writable {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public long value() {
+            return count.sum();
+        }
+
+        @Override
+        public void write(StringBuilder out, String name, String labels) {
+            out.append(name).append('{').append(labels).append("} ").append(value()).append('\n');
+        }
+    }
+
+    /**
+     * 고정 구간 누적 히스토그램. 관측값이 들어갈 구간을 선형 탐색으로 찾아 해당 칸만 증가시킨다.
+     */
+    public static final class Histogram implements Writable {
+        static final double[] LATENCY_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+        static final double[] PAGE_BUCKETS = {1, 2, 5, 10, 20, 50, 100};
+
+        private final double[] buckets;
+        // 관측 단위로 환산한 구간 상한. 지연 시간은 나노초, 개수는 그대로.
+        private final long[] bounds;
+        private final double unit;
+        private final AtomicLongArray counts;
+        private final LongAdder sum = new LongAdder();
+
+        Histogram() {
+            this(LATENCY_BUCKETS, TimeUnit.SECONDS.toNanos(1));
+        }
+
+        Histogram(double[] buckets, double unit) {
+            this.buckets = buckets;
+            this.unit = unit;
+            this.bounds = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                bounds[i] = (long) (buckets[i] * unit);
+            }
+            this.counts = new AtomicLongArray(buckets.length + 1);
+        }
+
+        public void observe(long value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) {
+                i++;
+            }
+            counts.incrementAndGet(i);
+            sum.add(value);
+        }
+
+        /** System.nanoTime()으로 잰 시작 시각부터 지금까지를 기록한다. */
+        public void observeSince(long startNanos) {
+            observe(System.nanoTime() - startNanos);
+        }
+
+        @Override
+        public void write(StringBuilder out, String name, String labels) {
+            long cumulative = 0;
+            for (int i = 0; i <= buckets.length; i++) {
+                cumulative += counts.get(i);
+                String le = i < buckets.length ? format(buckets[i]) : "+Inf";
+                out.append(name).append("_bucket{").append(labels).append(",le=\"").append(le).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            out.append(name).append("_sum{").append(labels).append("} ").append(format(sum.sum() / unit)).append('\n');
+            out.append(name).append("_count{").append(labels).append("} ").append(cumulative).append('\n');
+        }
+    }
+}
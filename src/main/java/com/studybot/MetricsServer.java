@@ -0,0 +1,51 @@
+package com.studybot;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * /metrics 경로로 지표를 내보내는 작은 HTTP 서버. JDK 내장 HttpServer를 데몬 스레드 하나로 돌린다.
+ */
+public class MetricsServer implements AutoCloseable {
+    private final HttpServer server;
+
+    private MetricsServer(HttpServer server) {
+        this.server = server;
+    }
+
+    public static MetricsServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> respond(exchange, 200,
+                "text/plain; version=0.0.4; charset=utf-8", Metrics.scrape()));
+        server.createContext("/", exchange -> respond(exchange, "/".equals(exchange.getRequestURI().getPath()) ? 200 : 404,
+                "text/plain; charset=utf-8", "ok\n"));
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "study-metrics");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        System.out.println("📈 지표 서버가 시작되었습니다: http://localhost:" + port + "/metrics");
+        return new MetricsServer(server);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
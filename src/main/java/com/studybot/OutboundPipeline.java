@@ -0,0 +1,198 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.requests.RestAction;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 디스코드로 나가는 메시지를 길이 제한에 맞게 나누고, 채널(경로)별로 순서대로 보내는 전송 파이프라인.
+ * 경로별 rate limit 버킷과 429 대기는 JDA 요청기가 처리하므로, 여기서는 한 채널의 메시지를 한 번에 하나씩 흘려보내
+ * 버킷을 한꺼번에 소진하지 않게 한다. 디스코드에 닿지도 못한 연결 오류만 지수 백오프로 다시 시도하고,
+ * 5xx나 응답 시간 초과처럼 이미 처리됐을 수도 있는 실패는 같은 메시지가 두 번 올라가지 않도록 그대로 실패로 돌린다.
+ */
+public class OutboundPipeline {
+    public static final int MESSAGE_LIMIT = Message.MAX_CONTENT_LENGTH;
+    public static final int FIELD_VALUE_LIMIT = MessageEmbed.VALUE_MAX_LENGTH;
+    public static final int EMBED_LIMIT = MessageEmbed.EMBED_MAX_LENGTH_BOT;
+    public static final int FIELDS_PER_EMBED = 25;
+    public static final int MAX_ATTEMPTS = 4;
+    public static final long BASE_BACKOFF_MILLIS = 1000;
+
+    // 페이지 번호 푸터("페이지 10/10")가 들어갈 자리
+    private static final int FOOTER_RESERVE = 32;
+
+    private final ScheduledExecutorService scheduler;
+    // 경로별로 마지막에 등록된 전송 묶음. 다음 묶음은 이전 묶음이 끝난 뒤에 시작한다.
+    private final Map<Long, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    public OutboundPipeline(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 같은 경로(채널 ID, 상호작용 ID 등)의 요청들을 앞선 묶음 뒤에 이어 순서대로 보낸다. route는 지표 라벨이다.
+     * 모든 요청이 전송되면 완료되고, 재시도 후에도 실패하면 그 오류로 완료된다.
+     */
+    public CompletableFuture<Void> submit(String route, long routeKey, List<? extends RestAction<?>> actions) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = tails.put(routeKey, done);
+        done.whenComplete((result, error) -> tails.remove(routeKey, done));
+
+        Deque<RestAction<?>> remaining = new ArrayDeque<>(actions);
+        // 전송은 JDA 콜백 스레드에서 이어지므로 명령어 라벨은 등록하는 시점에 정해 둔다.
+        String command = Metrics.currentCommand();
+        RouteMetrics metrics = new RouteMetrics(Metrics.REST_REQUESTS.labels(route, command),
+                Metrics.REST_RETRIES.labels(route, command), Metrics.REST_FAILURES.labels(route, command));
+        CompletableFuture<?> ready = previous == null ? CompletableFuture.completedFuture(null) : previous.exceptionally(error -> null);
+        ready.thenRun(() -> sendNext(remaining, 1, done, metrics));
+        return done;
+    }
+
+    private void sendNext(Deque<RestAction<?>> remaining, int attempt, CompletableFuture<Void> done, RouteMetrics metrics) {
+        RestAction<?> action = remaining.peek();
+        if (action == null) {
+            done.complete(null);
+            return;
+        }
+
+        metrics.requests.increment();
+        action.submit().whenComplete((result, error) -> {
+            if (error == null) {
+                remaining.poll();
+                sendNext(remaining, 1, done, metrics);
+                return;
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (attempt >= MAX_ATTEMPTS || !isRetryable(cause)) {
+                metrics.failures.increment();
+                done.completeExceptionally(cause);
+                return;
+            }
+            try {
+                scheduler.schedule(() -> sendNext(remaining, attempt + 1, done, metrics),
+                        BASE_BACKOFF_MILLIS << (attempt - 1), TimeUnit.MILLISECONDS);
+                metrics.retries.increment();
+            } catch (RejectedExecutionException e) {
+                metrics.failures.increment();
+                done.completeExceptionally(cause);
+            }
+        });
+    }
+
+    private record RouteMetrics(Metrics.Counter requests, Metrics.Counter retries, Metrics.Counter failures) {
+    }
+
+    /**
+     * 요청이 디스코드에 전달되지 않은 것이 확실할 때만 true. 연결을 맺기 전(주소 조회, 연결 거부)에 실패한 경우다.
+     * 4xx는 다시 보내도 같은 결과이고, 5xx나 응답을 기다리다 끊긴 경우는 디스코드가 이미 메시지를 올렸을 수 있다.
+     */
+    static boolean isRetryable(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException || t instanceof NoRouteToHostException || t instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 항목들을 구분자로 이어 붙이되, 각 덩어리가 limit 글자를 넘지 않도록 나눈다.
+     * 한 항목이 limit보다 길면 잘라서 넣는다.
+     */
+    public static List<String> chunk(List<String> items, String separator, int limit) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String item : items) {
+            if (item.length() > limit) {
+                item = item.substring(0, limit - 1) + "…";
+            }
+            if (current.length() > 0 && current.length() + separator.length() + item.length() > limit) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append(separator);
+            }
+            current.append(item);
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    /**
+     * 머리말 뒤에 멘션 목록이 이어지는 메시지를 2,000자 제한에 맞게 여러 개로 나눈다. 머리말은 첫 메시지에만 붙는다.
+     */
+    public static List<String> splitMessage(String header, List<String> items, String separator) {
+        List<String> messages = new ArrayList<>(chunk(items, separator, MESSAGE_LIMIT - header.length()));
+        if (messages.isEmpty()) {
+            messages.add(header);
+        } else {
+            messages.set(0, header + messages.get(0));
+        }
+        return messages;
+    }
+
+    /**
+     * 한 줄씩 쌓이는 목록을 1,024자 필드 제한에 맞게 여러 필드로 나눈다. 두 번째 필드부터는 이름에 "(계속)"을 붙인다.
+     */
+    public static List<MessageEmbed.Field> splitField(String name, List<String> lines, String separator, boolean inline) {
+        List<MessageEmbed.Field> fields = new ArrayList<>();
+        for (String value : chunk(lines, separator, FIELD_VALUE_LIMIT)) {
+            fields.add(new MessageEmbed.Field(fields.isEmpty() ? name : name + " (계속)", value, inline));
+        }
+        return fields;
+    }
+
+    /**
+     * 필드들을 임베드 하나의 한도(필드 25개, 전체 6,000자) 안에서 여러 페이지로 나눈다.
+     * 각 페이지는 header가 만든 제목/색상/설명 위에 필드를 채우고, 두 페이지 이상이면 푸터에 페이지 번호를 단다.
+     */
+    public static List<MessageEmbed> paginate(Supplier<EmbedBuilder> header, List<MessageEmbed.Field> fields) {
+        int headerLength = header.get().length() + FOOTER_RESERVE;
+        List<List<MessageEmbed.Field>> pages = new ArrayList<>();
+        List<MessageEmbed.Field> page = new ArrayList<>();
+        int length = headerLength;
+        for (MessageEmbed.Field field : fields) {
+            int fieldLength = field.getName().length() + field.getValue().length();
+            if (!page.isEmpty() && (page.size() == FIELDS_PER_EMBED || length + fieldLength > EMBED_LIMIT)) {
+                pages.add(page);
+                page = new ArrayList<>();
+                length = headerLength;
+            }
+            page.add(field);
+            length += fieldLength;
+        }
+        pages.add(page);
+
+        List<MessageEmbed> embeds = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            EmbedBuilder eb = header.get();
+            pages.get(i).forEach(eb::addField);
+            if (pages.size() > 1) {
+                eb.setFooter("페이지 " + (i + 1) + "/" + pages.size());
+            }
+            embeds.add(eb.build());
+        }
+        return embeds;
+    }
+}
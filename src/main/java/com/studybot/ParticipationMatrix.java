@@ -0,0 +1,311 @@
+package com.studybot;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * 멤버별 참여 여부를 날짜 단위 비트셋으로 보관하는 행렬.
+ * 사용자 ID(long)를 키로 하는 오픈 어드레싱 해시로 행을 찾고, 각 행은 디스코드 에포크(2015-01-01)부터의 일수를 비트 위치로 쓴다.
+ * 조회는 popcount와 비트 연산만 사용하므로 객체를 만들지 않는다. 동기화는 호출하는 쪽(ParticipationStore)이 맡는다.
+ * <p>
+ * 각 행에는 64일 블록 단위 누적합(ranks[w] = w번째 블록 앞까지의 참여일 수)을 함께 두어, 기간별 참여일 수를
+ * 기간 길이와 관계없이 누적합 두 개와 popcount 두 번으로 구한다. 채널 전체로는 날짜별 참여 인원과 그 누적합을 둔다.
+ * 누적합은 기록이 있는 마지막 블록(usedWords)까지만 갱신하고 그 뒤는 전체 합과 같다고 보므로,
+ * 행이 커지며 배열을 두 배로 늘려도 빈 뒷부분은 건드리지 않는다. 기록은 대부분 최근 날짜에 들어오므로 갱신은 한두 칸에서 끝난다.
+ */
+public final class ParticipationMatrix {
+    public static final int BASE_EPOCH_DAY = (int) LocalDate.of(2015, 1, 1).toEpochDay();
+
+    private static final long EMPTY = 0L;
+    private static final long[] NO_BITS = new long[0];
+    private static final int[] NO_RANKS = new int[1];
+
+    private long[] keys = new long[64];
+    private int[] rowIndex = new int[64];
+    private long[][] rows = new long[32][];
+    private int[][] ranks = new int[32][];
+    // 행별로 기록이 있는 마지막 블록 + 1. ranks[row][usedWords[row]]가 그 멤버의 전체 참여일 수다.
+    private int[] usedWords = new int[32];
+    private int size;
+
+    // 날짜(BASE_EPOCH_DAY부터의 일수)별 참여 인원과, activePrefix[i] = i일 앞까지의 참여 인원 합.
+    // 누적합은 조회할 때 prefixValidUntil 뒤쪽만 다시 계산한다.
+    private int[] activeByDay = new int[0];
+    private long[] activePrefix = new long[1];
+    private int prefixValidUntil;
+
+    /**
+     * 참여일을 표시한다. 이미 표시된 날이면 false를 돌려준다. 사용자 ID 0은 사용할 수 없다.
+     */
+    public boolean set(long userId, int epochDay) {
+        int offset = epochDay - BASE_EPOCH_DAY;
+        if (offset < 0 || userId == EMPTY) {
+            return false;
+        }
+
+        int row = rowFor(userId);
+        long[] bits = rows[row];
+        int[] rank = ranks[row];
+        int word = offset >>> 6;
+        if (word >= bits.length) {
+            int length = Math.max(word + 1, bits.length * 2);
+            bits = Arrays.copyOf(bits, length);
+            rows[row] = bits;
+            rank = Arrays.copyOf(rank, length + 1);
+            ranks[row] = rank;
+        }
+
+        long mask = 1L << offset;
+        if ((bits[word] & mask) != 0) {
+            return false;
+        }
+        bits[word] |= mask;
+        int used = usedWords[row];
+        if (word >= used) {
+            // 새로 쓰는 블록까지의 빈 블록은 앞까지의 합이 모두 전체 합과 같다.
+            Arrays.fill(rank, used + 1, word + 2, rank[used]);
+            used = word + 1;
+            usedWords[row] = used;
+        }
+        for (int w = word + 1; w <= used; w++) {
+            rank[w]++;
+        }
+
+        if (offset >= activeByDay.length) {
+            activeByDay = Arrays.copyOf(activeByDay, Math.max(offset + 1, activeByDay.length * 2));
+        }
+        activeByDay[offset]++;
+        prefixValidUntil = Math.min(prefixValidUntil, offset);
+        return true;
+    }
+
+    public boolean get(long userId, int epochDay) {
+        long[] bits = bits(userId);
+        int offset = epochDay - BASE_EPOCH_DAY;
+        if (offset < 0 || (offset >>> 6) >= bits.length) {
+            return false;
+        }
+        return (bits[offset >>> 6] & (1L << offset)) != 0;
+    }
+
+    /**
+     * fromDay부터 toDay까지(양끝 포함) 참여한 날 수. 기간 길이와 관계없이 일정한 시간이 걸린다.
+     */
+    public int count(long userId, int fromDay, int toDay) {
+        int row = rowOf(userId);
+        if (row < 0) {
+            return 0;
+        }
+        long[] bits = rows[row];
+        int lo = Math.max(fromDay - BASE_EPOCH_DAY, 0);
+        int hi = Math.min(toDay - BASE_EPOCH_DAY, bits.length * 64 - 1);
+        if (lo > hi) {
+            return 0;
+        }
+        return rank(row, hi + 1) - rank(row, lo);
+    }
+
+    /** 비트 위치 offset 앞까지의 참여일 수. 기록이 있는 마지막 블록 뒤는 전체 합이다. */
+    private int rank(int row, int offset) {
+        int word = offset >>> 6;
+        int used = usedWords[row];
+        if (word >= used) {
+            return ranks[row][used];
+        }
+        return ranks[row][word] + Long.bitCount(rows[row][word] & ((1L << offset) - 1));
+    }
+
+    public int countAll(long userId) {
+        int row = rowOf(userId);
+        return row < 0 ? 0 : ranks[row][usedWords[row]];
+    }
+
+    /** 그날 기록한 멤버 수 */
+    public int activeMembers(int epochDay) {
+        int offset = epochDay - BASE_EPOCH_DAY;
+        return offset < 0 || offset >= activeByDay.length ? 0 : activeByDay[offset];
+    }
+
+    /**
+     * fromDay부터 toDay까지(양끝 포함) 모든 멤버의 참여일 수 합.
+     */
+    public long memberDays(int fromDay, int toDay) {
+        int lo = Math.max(fromDay - BASE_EPOCH_DAY, 0);
+        int hi = Math.min(toDay - BASE_EPOCH_DAY, activeByDay.length - 1);
+        if (lo > hi) {
+            return 0;
+        }
+        updatePrefix();
+        return activePrefix[hi + 1] - activePrefix[lo];
+    }
+
+    private void updatePrefix() {
+        if (activePrefix.length != activeByDay.length + 1) {
+            activePrefix = Arrays.copyOf(activePrefix, activeByDay.length + 1);
+        } else if (prefixValidUntil >= activeByDay.length) {
+            return;
+        }
+        for (int i = prefixValidUntil; i < activeByDay.length; i++) {
+            activePrefix[i + 1] = activePrefix[i] + activeByDay[i];
+        }
+        prefixValidUntil = activeByDay.length;
+    }
+
+    /** date가 속한 주(월~일)의 참여일 수 */
+    public int countWeek(long userId, LocalDate date) {
+        int monday = (int) date.with(DayOfWeek.MONDAY).toEpochDay();
+        return count(userId, monday, monday + 6);
+    }
+
+    public int countMonth(long userId, YearMonth month) {
+        return count(userId, (int) month.atDay(1).toEpochDay(), (int) month.atEndOfMonth().toEpochDay());
+    }
+
+    /**
+     * today까지 이어지는 연속 참여일 수. 오늘 아직 기록하지 않았다면 어제까지의 연속 기록을 센다.
+     */
+    public int currentStreak(long userId, int today) {
+        long[] bits = bits(userId);
+        int i = today - BASE_EPOCH_DAY;
+        if (!get(userId, today)) {
+            i--;
+        }
+        if (i < 0 || (i >>> 6) >= bits.length) {
+            return 0;
+        }
+
+        int streak = 0;
+        while (i >= 0) {
+            int bit = i & 63;
+            long mask = bit == 63 ? -1L : (1L << (bit + 1)) - 1;
+            long zeros = ~bits[i >>> 6] & mask;
+            if (zeros == 0) {
+                streak += bit + 1;
+                i -= bit + 1;
+                continue;
+            }
+            int highestZero = 63 - Long.numberOfLeadingZeros(zeros);
+            streak += bit - highestZero;
+            break;
+        }
+        return streak;
+    }
+
+    public int longestStreak(long userId) {
+        int best = 0;
+        int run = 0;
+        for (long word : bits(userId)) {
+            if (word == -1L) {
+                run += 64;
+                continue;
+            }
+            int pos = 0;
+            long x = word;
+            while (pos < 64) {
+                if (x == 0) {
+                    best = Math.max(best, run);
+                    run = 0;
+                    break;
+                }
+                if ((x & 1) != 0) {
+                    int ones = Long.numberOfTrailingZeros(~x);
+                    run += ones;
+                    pos += ones;
+                    x >>>= ones;
+                } else {
+                    best = Math.max(best, run);
+                    run = 0;
+                    int zeros = Long.numberOfTrailingZeros(x);
+                    pos += zeros;
+                    x >>>= zeros;
+                }
+            }
+        }
+        return Math.max(best, run);
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(rows, null);
+        Arrays.fill(ranks, null);
+        Arrays.fill(usedWords, 0);
+        size = 0;
+        activeByDay = new int[0];
+        activePrefix = new long[1];
+        prefixValidUntil = 0;
+    }
+
+    private long[] bits(long userId) {
+        int row = rowOf(userId);
+        return row < 0 ? NO_BITS : rows[row];
+    }
+
+    private int rowOf(long userId) {
+        if (userId == EMPTY) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int slot = hash(userId) & mask; ; slot = (slot + 1) & mask) {
+            long key = keys[slot];
+            if (key == userId) {
+                return rowIndex[slot];
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int rowFor(long userId) {
+        int mask = keys.length - 1;
+        for (int slot = hash(userId) & mask; ; slot = (slot + 1) & mask) {
+            long key = keys[slot];
+            if (key == userId) {
+                return rowIndex[slot];
+            }
+            if (key == EMPTY) {
+                if ((size + 1) * 2 > keys.length) {
+                    rehash();
+                    return rowFor(userId);
+                }
+                keys[slot] = userId;
+                rowIndex[slot] = size;
+                if (size == rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                    ranks = Arrays.copyOf(ranks, ranks.length * 2);
+                    usedWords = Arrays.copyOf(usedWords, usedWords.length * 2);
+                }
+                rows[size] = NO_BITS;
+                ranks[size] = NO_RANKS;
+                return size++;
+            }
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldRows = rowIndex;
+        keys = new long[oldKeys.length * 2];
+        rowIndex = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            rowIndex[slot] = oldRows[i];
+        }
+    }
+
+    private static int hash(long key) {
+        // 스노우플레이크의 하위 비트는 편향되어 있으므로 섞어서 사용한다.
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
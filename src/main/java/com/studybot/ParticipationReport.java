@@ -0,0 +1,320 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.awt.Color;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 기간별 참여 리포트. 멤버별 참여일 수는 ParticipationMatrix의 누적합으로 멤버당 일정한 시간에 구하고,
+ * 날짜별 참여 인원은 채널 단위 배열에서 바로 읽으므로 기간이 길어도 기록을 다시 훑지 않는다.
+ */
+public final class ParticipationReport {
+    public static final int TOP_MEMBERS = 10;
+    public static final int MAX_COHORTS = 6;
+    public static final int MAX_DAYS = 366;
+
+    private static final DateTimeFormatter SHORT_DATE = DateTimeFormatter.ofPattern("MM/dd");
+    // jlink 이미지에는 jdk.localedata가 없어 DayOfWeek.getDisplayName이 영어로 나오므로 요일 이름을 직접 둔다.
+    private static final String WEEKDAYS = "월화수목금토일";
+    private static final String[] BAR_LEVELS = {" ", "▁", "▂", "▃", "▄", "▅", "▆", "▇", "█"};
+
+    /** /리포트 의 기간 선택지. 오늘이 포함된 주와 달은 오늘까지만 센다. */
+    public enum Period {
+        THIS_WEEK("이번 주"),
+        LAST_WEEK("지난 주"),
+        THIS_MONTH("이번 달"),
+        LAST_MONTH("지난 달"),
+        LAST_30_DAYS("최근 30일");
+
+        private final String label;
+
+        Period(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public LocalDate from(LocalDate today) {
+            return switch (this) {
+                case THIS_WEEK -> today.with(DayOfWeek.MONDAY);
+                case LAST_WEEK -> today.with(DayOfWeek.MONDAY).minusWeeks(1);
+                case THIS_MONTH -> today.withDayOfMonth(1);
+                case LAST_MONTH -> YearMonth.from(today).minusMonths(1).atDay(1);
+                case LAST_30_DAYS -> today.minusDays(29);
+            };
+        }
+
+        public LocalDate to(LocalDate today) {
+            return switch (this) {
+                case LAST_WEEK -> today.with(DayOfWeek.MONDAY).minusDays(1);
+                case LAST_MONTH -> today.withDayOfMonth(1).minusDays(1);
+                default -> today;
+            };
+        }
+    }
+
+    public record MemberStat(RosterMember member, int participationCount, long eligibleDays) {
+        public double rate() {
+            return eligibleDays > 0 ? (double) participationCount / eligibleDays * 100 : 0;
+        }
+    }
+
+    /** includesOlder가 true면 joined 이전에 가입한 멤버까지 합친 묶음이다. */
+    public record Cohort(YearMonth joined, boolean includesOlder, int members, long participationCount,
+                         long eligibleDays) {
+        public double rate() {
+            return eligibleDays > 0 ? (double) participationCount / eligibleDays * 100 : 0;
+        }
+    }
+
+    /** 기간 하나의 합계. 이전 기간과 비교할 때도 쓴다. */
+    public record Totals(int members, int activeMembers, long participationCount, long eligibleDays) {
+        public double rate() {
+            return eligibleDays > 0 ? (double) participationCount / eligibleDays * 100 : 0;
+        }
+    }
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Totals totals;
+    private final Totals previous;
+    private final int[] activeByDay;
+    private final long channelMemberDays;
+    private final List<MemberStat> top;
+    private final List<Cohort> cohorts;
+
+    private ParticipationReport(LocalDate from, LocalDate to, Totals totals, Totals previous, int[] activeByDay,
+                                long channelMemberDays, List<MemberStat> top, List<Cohort> cohorts) {
+        this.from = from;
+        this.to = to;
+        this.totals = totals;
+        this.previous = previous;
+        this.activeByDay = activeByDay;
+        this.channelMemberDays = channelMemberDays;
+        this.top = top;
+        this.cohorts = cohorts;
+    }
+
+    /**
+     * from부터 to까지(양끝 포함)의 리포트. 멤버별 가능 일수는 서버에 들어온 날부터 센다.
+     */
+    public static ParticipationReport create(List<RosterMember> members, ParticipationStore store, LocalDate from,
+                                             LocalDate to) {
+        List<MemberStat> stats = memberStats(members, store, from, to);
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+
+        int[] activeByDay = new int[(int) days];
+        for (int i = 0; i < activeByDay.length; i++) {
+            activeByDay[i] = store.activeMembers(from.plusDays(i));
+        }
+
+        List<MemberStat> top = stats.stream()
+                .filter(stat -> stat.participationCount() > 0)
+                .sorted(Comparator.comparingInt(MemberStat::participationCount).reversed()
+                        .thenComparing(Comparator.comparingDouble(MemberStat::rate).reversed())
+                        .thenComparing(stat -> stat.member().effectiveName()))
+                .limit(TOP_MEMBERS)
+                .toList();
+
+        // 가입한 달별로 묶어 최근 코호트부터 보여 주고, MAX_COHORTS번째부터는 하나로 합친다.
+        TreeMap<YearMonth, Cohort> byMonth = new TreeMap<>(Comparator.reverseOrder());
+        for (MemberStat stat : stats) {
+            YearMonth joined = YearMonth.from(stat.member().joinDate(store.zone()));
+            byMonth.merge(joined, new Cohort(joined, false, 1, stat.participationCount(), stat.eligibleDays()),
+                    (a, b) -> new Cohort(a.joined(), false, a.members() + b.members(),
+                            a.participationCount() + b.participationCount(), a.eligibleDays() + b.eligibleDays()));
+        }
+        List<Cohort> cohorts = new ArrayList<>();
+        for (Map.Entry<YearMonth, Cohort> entry : byMonth.entrySet()) {
+            Cohort cohort = entry.getValue();
+            if (cohorts.size() < MAX_COHORTS) {
+                cohorts.add(cohort);
+            } else {
+                Cohort last = cohorts.get(MAX_COHORTS - 1);
+                cohorts.set(MAX_COHORTS - 1, new Cohort(last.joined(), true, last.members() + cohort.members(),
+                        last.participationCount() + cohort.participationCount(),
+                        last.eligibleDays() + cohort.eligibleDays()));
+            }
+        }
+
+        Totals previous = totals(memberStats(members, store, from.minusDays(days), from.minusDays(1)));
+        // 서버를 떠난 멤버의 기록까지 포함한 채널 전체 참여 횟수
+        long channelMemberDays = store.memberDays(from, to);
+        return new ParticipationReport(from, to, totals(stats), previous, activeByDay, channelMemberDays, top, cohorts);
+    }
+
+    private static List<MemberStat> memberStats(List<RosterMember> members, ParticipationStore store, LocalDate from,
+                                                LocalDate to) {
+        List<MemberStat> stats = new ArrayList<>(members.size());
+        for (RosterMember member : members) {
+            LocalDate joinDate = member.joinDate(store.zone());
+            LocalDate start = joinDate.isAfter(from) ? joinDate : from;
+            if (start.isAfter(to)) {
+                continue;
+            }
+            stats.add(new MemberStat(member, store.countDays(member.userId(), start, to),
+                    ChronoUnit.DAYS.between(start, to) + 1));
+        }
+        return stats;
+    }
+
+    private static Totals totals(List<MemberStat> stats) {
+        int active = 0;
+        long participation = 0;
+        long eligible = 0;
+        for (MemberStat stat : stats) {
+            if (stat.participationCount() > 0) {
+                active++;
+            }
+            participation += stat.participationCount();
+            eligible += stat.eligibleDays();
+        }
+        return new Totals(stats.size(), active, participation, eligible);
+    }
+
+    public LocalDate from() {
+        return from;
+    }
+
+    public LocalDate to() {
+        return to;
+    }
+
+    public Totals totals() {
+        return totals;
+    }
+
+    public Totals previous() {
+        return previous;
+    }
+
+    public List<MemberStat> top() {
+        return top;
+    }
+
+    public List<Cohort> cohorts() {
+        return cohorts;
+    }
+
+    public long channelMemberDays() {
+        return channelMemberDays;
+    }
+
+    /** 날짜별 참여 인원. 0번이 from이다. */
+    public int[] activeByDay() {
+        return activeByDay.clone();
+    }
+
+    public String periodText() {
+        return from.format(StudyBot.DATE_FORMATTER) + " ~ " + to.format(StudyBot.DATE_FORMATTER);
+    }
+
+    public MessageEmbed toEmbed(String title) {
+        EmbedBuilder eb = new EmbedBuilder()
+                .setTitle("📈 " + title)
+                .setColor(new Color(46, 139, 87))
+                .setDescription(periodText() + " (" + activeByDay.length + "일, 참여 기록 " + channelMemberDays + "회)");
+
+        eb.addField("참여 멤버", totals.activeMembers() + " / " + totals.members() + "명", true);
+        eb.addField("평균 참여율", String.format("%.1f%%", totals.rate()), true);
+        eb.addField("이전 기간 대비", change(), true);
+        eb.addField("📅 일별 참여 인원", curve(), false);
+
+        StringBuilder ranking = new StringBuilder();
+        for (int i = 0; i < top.size(); i++) {
+            MemberStat stat = top.get(i);
+            ranking.append(String.format("%d. %s - %d일 (%.1f%%)\n", i + 1, stat.member().effectiveName(),
+                    stat.participationCount(), stat.rate()));
+        }
+        eb.addField("🏅 참여 상위 멤버", ranking.isEmpty() ? "기록이 없습니다." : ranking.toString(), false);
+
+        StringBuilder cohortText = new StringBuilder();
+        for (int i = 0; i < cohorts.size(); i++) {
+            Cohort cohort = cohorts.get(i);
+            cohortText.append(String.format("%s%s 가입: %d명, %.1f%%\n", cohort.joined(), cohort.includesOlder() ? " 이전" : "",
+                    cohort.members(), cohort.rate()));
+        }
+        if (!cohortText.isEmpty()) {
+            eb.addField("👥 가입 시기별 참여율", cohortText.toString(), false);
+        }
+        return eb.build();
+    }
+
+    /** 채널에 올리는 주간 요약. 멘션 없이 이름만 쓴다. */
+    public String toSummary(String title) {
+        StringBuilder summary = new StringBuilder()
+                .append("📈 **").append(title).append("** (").append(periodText()).append(")\n")
+                .append(String.format("참여 멤버 %d / %d명 · 평균 참여율 %.1f%% (이전 기간 대비 %s)\n",
+                        totals.activeMembers(), totals.members(), totals.rate(), change()));
+        if (!top.isEmpty()) {
+            summary.append("🏅 ");
+            for (int i = 0; i < Math.min(3, top.size()); i++) {
+                MemberStat stat = top.get(i);
+                summary.append(i > 0 ? " · " : "").append(i + 1).append(". ").append(stat.member().effectiveName())
+                        .append(" ").append(stat.participationCount()).append("일");
+            }
+        }
+        return summary.toString();
+    }
+
+    private String change() {
+        if (previous.eligibleDays() == 0) {
+            return "비교 불가";
+        }
+        double delta = totals.rate() - previous.rate();
+        return String.format("%s%.1f%%p", delta >= 0 ? "+" : "", delta);
+    }
+
+    /** 31일까지는 하루씩, 그보다 길면 필드 길이 제한(1,024자)에 맞게 주 이상 단위의 평균으로 막대를 그린다. */
+    private String curve() {
+        int max = 1;
+        for (int count : activeByDay) {
+            max = Math.max(max, count);
+        }
+        StringBuilder text = new StringBuilder("```\n");
+        if (activeByDay.length <= 31) {
+            for (int i = 0; i < activeByDay.length; i++) {
+                LocalDate date = from.plusDays(i);
+                text.append(String.format("%s %s %s %d\n", date.format(SHORT_DATE),
+                        WEEKDAYS.charAt(date.getDayOfWeek().getValue() - 1),
+                        bar(activeByDay[i], max, 10), activeByDay[i]));
+            }
+        } else {
+            int bucket = Math.max(7, (activeByDay.length + 30) / 31);
+            for (int start = 0; start < activeByDay.length; start += bucket) {
+                int end = Math.min(start + bucket, activeByDay.length);
+                double average = 0;
+                for (int i = start; i < end; i++) {
+                    average += activeByDay[i];
+                }
+                average /= end - start;
+                text.append(String.format("%s~ %s %.1f\n", from.plusDays(start).format(SHORT_DATE),
+                        bar((int) Math.round(average), max, 10), average));
+            }
+        }
+        return text.append("```").toString();
+    }
+
+    private static String bar(int value, int max, int width) {
+        int eighths = (int) Math.round((double) value / max * width * 8);
+        StringBuilder bar = new StringBuilder();
+        for (int i = 0; i < width; i++) {
+            int level = Math.max(0, Math.min(8, eighths - i * 8));
+            bar.append(BAR_LEVELS[level]);
+        }
+        return bar.toString();
+    }
+}
@@ -0,0 +1,529 @@
+package com.studybot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 스터디 기록을 로컬 디스크에 보관하는 저장소.
+ * 스냅샷 파일과 추가 전용 로그(append-only log)로 구성되며, 시작 시 스냅샷을 읽은 뒤 로그를 재생한다.
+ * 로그 끝에 쓰다 만 레코드가 있으면 마지막 정상 위치까지 잘라내고, 스냅샷이 손상되었으면 비운 뒤 백필을 요청한다.
+ * 채널 기록 중 어디까지 빠짐없이 반영했는지(coveredSince, 개별 조회한 날짜)도 함께 보관한다.
+ * 날짜 단위로 따로 조회한 결과는 기록과 조회 구간 표시를 로그에 덧붙이고, 로그가 충분히 길어졌을 때만 스냅샷으로 합친다.
+ * 기록 내용의 검색 색인은 스냅샷을 쓸 때 함께 저장하고, 파일이 없거나 맞지 않으면 기록으로부터 다시 만든다.
+ * 날짜는 채널 시간대 기준으로 나눈다.
+ */
+public class ParticipationStore implements AutoCloseable {
+    private static final int SNAPSHOT_MAGIC = 0x53545544;
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int LOG_COMPACT_THRESHOLD = 500;
+    // 로그 항목 맨 앞의 메시지 ID 자리에 이 값이 있으면 기록 대신 조회 구간(시작일, 종료일)이 뒤따른다.
+    private static final long COVERAGE_ENTRY = -1;
+
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final Path searchIndexFile;
+    private final ZoneId zone;
+
+    private final Map<Long, StudyRecord> recordsById = new HashMap<>();
+    private final TreeMap<LocalDate, Map<Long, StudyRecord>> recordsByDate = new TreeMap<>();
+    private final ParticipationMatrix matrix = new ParticipationMatrix();
+    private final Set<LocalDate> fetchedDays = new HashSet<>();
+    private final List<Consumer<Set<LocalDate>>> changeListeners = new CopyOnWriteArrayList<>();
+
+    // 스냅샷을 읽는 동안에는 null이다. 색인 파일을 읽거나 다시 만든 뒤 로그 재생부터 함께 갱신한다.
+    private SearchIndex searchIndex;
+    private LocalDate coveredSince = LocalDate.MAX;
+    private long lastMessageId;
+
+    private FileChannel log;
+    private int logEntries;
+    private boolean corrupted;
+
+    private ParticipationStore(Path directory, ZoneId zone) {
+        this.snapshotFile = directory.resolve("participation.snapshot");
+        this.logFile = directory.resolve("participation.log");
+        this.searchIndexFile = directory.resolve("search.index");
+        this.zone = zone;
+    }
+
+    public static ParticipationStore open(Path directory, ZoneId zone) throws IOException {
+        Files.createDirectories(directory);
+        ParticipationStore store = new ParticipationStore(directory, zone);
+        store.load();
+        return store;
+    }
+
+    private void load() throws IOException {
+        if (Files.exists(snapshotFile)) {
+            try {
+                readSnapshot();
+            } catch (IOException e) {
+                System.err.println("⚠️ 참여 기록 스냅샷이 손상되었습니다. 기록을 다시 불러옵니다: " + e.getMessage());
+                clearMemory();
+                corrupted = true;
+            }
+        }
+
+        if (searchIndex == null) {
+            searchIndex = loadSearchIndex();
+        }
+
+        log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!corrupted) {
+            replayLog();
+        }
+        if (logEntries > 0 || corrupted) {
+            compact();
+        }
+        System.out.println("💾 참여 기록 " + recordsById.size() + "건을 불러왔습니다.");
+    }
+
+    private void readSnapshot() throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshotFile));
+             CheckedInputStream checked = new CheckedInputStream(in, crc)) {
+            DataInputStream data = new DataInputStream(checked);
+            if (data.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("알 수 없는 스냅샷 형식");
+            }
+            int version = data.readInt();
+            if (version != 1 && version != SNAPSHOT_VERSION) {
+                throw new IOException("지원하지 않는 스냅샷 버전: " + version);
+            }
+            if (version >= 2) {
+                coveredSince = LocalDate.ofEpochDay(data.readLong());
+                int fetchedCount = data.readInt();
+                for (int i = 0; i < fetchedCount; i++) {
+                    fetchedDays.add(LocalDate.ofEpochDay(data.readLong()));
+                }
+            }
+            int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                index(readRecord(data));
+            }
+            if (version == 1) {
+                coveredSince = recordsByDate.isEmpty() ? LocalDate.MAX : recordsByDate.firstKey();
+            }
+            long expected = crc.getValue();
+            if (new DataInputStream(in).readLong() != expected) {
+                throw new IOException("체크섬 불일치");
+            }
+        }
+    }
+
+    private SearchIndex loadSearchIndex() {
+        if (Files.exists(searchIndexFile)) {
+            try {
+                return SearchIndex.load(searchIndexFile, recordsById);
+            } catch (IOException e) {
+                System.err.println("⚠️ 검색 색인을 다시 만듭니다: " + e.getMessage());
+            }
+        }
+        SearchIndex index = new SearchIndex();
+        recordsById.values().stream()
+                .sorted(Comparator.comparingLong(StudyRecord::messageId))
+                .forEach(index::add);
+        return index;
+    }
+
+    private void replayLog() throws IOException {
+        long size = log.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(8);
+
+        while (position < size) {
+            header.clear();
+            if (log.read(header, position) < 8) {
+                break;
+            }
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || position + 8 + length > size) {
+                break;
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            log.read(payload, position + 8);
+            CRC32 crc = new CRC32();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload.array()));
+            if (payload.getLong(0) == COVERAGE_ENTRY) {
+                data.readLong();
+                markFetched(LocalDate.ofEpochDay(data.readLong()), LocalDate.ofEpochDay(data.readLong()));
+            } else {
+                index(readRecord(data));
+            }
+            logEntries++;
+            position += 8 + length;
+        }
+
+        if (position < size) {
+            System.err.println("⚠️ 참여 기록 로그의 끝부분이 손상되어 잘라냅니다. (" + position + "/" + size + " bytes)");
+            log.truncate(position);
+        }
+        log.position(position);
+    }
+
+    /**
+     * 기록이 추가될 때마다 영향을 받은 날짜 목록과 함께 호출된다.
+     */
+    public void addChangeListener(Consumer<Set<LocalDate>> listener) {
+        changeListeners.add(listener);
+    }
+
+    public synchronized boolean add(StudyRecord record) {
+        if (!index(record)) {
+            return false;
+        }
+        notifyChanged(Set.of(record.date(zone)));
+
+        try {
+            appendToLog(record);
+            if (++logEntries >= LOG_COMPACT_THRESHOLD) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("❌ 참여 기록 저장 중 오류: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return true;
+    }
+
+    public synchronized int addAll(Collection<StudyRecord> records) {
+        int added = indexAll(records).size();
+        if (added > 0 || corrupted) {
+            saveSnapshot();
+        }
+        return added;
+    }
+
+    /**
+     * 채널 기록을 거슬러 올라가며 읽은 결과를 반영한다. coveredSince 이후의 날짜는 빠짐없이 반영된 것으로 본다.
+     */
+    public synchronized int backfill(Collection<StudyRecord> records, LocalDate coveredSince) {
+        if (coveredSince.isBefore(this.coveredSince)) {
+            this.coveredSince = coveredSince;
+        }
+        int added = indexAll(records).size();
+        saveSnapshot();
+        return added;
+    }
+
+    /**
+     * 특정 날짜 하루치를 따로 조회한 결과를 반영한다.
+     */
+    public synchronized int fillDay(LocalDate date, Collection<StudyRecord> records) {
+        return fillDays(date, date, records);
+    }
+
+    /**
+     * from부터 to까지(양끝 포함) 구간을 따로 조회한 결과를 반영한다.
+     * 새 기록을 로그에 덧붙인 뒤 조회 구간을 표시하므로, 중간에 멈추면 구간 표시만 빠지고 다음에 다시 조회한다.
+     */
+    public synchronized int fillDays(LocalDate from, LocalDate to, Collection<StudyRecord> records) {
+        markFetched(from, to);
+        List<StudyRecord> added = indexAll(records);
+
+        try {
+            for (StudyRecord record : added) {
+                writeToLog(serialize(record));
+            }
+            writeToLog(serializeCoverage(from, to));
+            log.force(false);
+            logEntries += added.size() + 1;
+            if (logEntries >= LOG_COMPACT_THRESHOLD) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("❌ 참여 기록 저장 중 오류: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return added.size();
+    }
+
+    private void markFetched(LocalDate from, LocalDate to) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            fetchedDays.add(date);
+        }
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    public synchronized boolean needsBackfill() {
+        return corrupted || recordsById.isEmpty();
+    }
+
+    /** 채널의 첫 메시지부터 빠짐없이 반영했는지 */
+    public synchronized boolean hasFullHistory() {
+        return coveredSince.equals(LocalDate.MIN);
+    }
+
+    /** 이 날짜부터 오늘까지는 빠짐없이 반영했다. 아무것도 없으면 LocalDate.MAX */
+    public synchronized LocalDate coveredSince() {
+        return coveredSince;
+    }
+
+    public synchronized boolean isCovered(LocalDate date) {
+        return !date.isBefore(coveredSince) || fetchedDays.contains(date);
+    }
+
+    public synchronized long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public synchronized Map<Long, StudyRecord> getRecords(LocalDate date) {
+        Map<Long, StudyRecord> records = recordsByDate.get(date);
+        return records == null ? Map.of() : new LinkedHashMap<>(records);
+    }
+
+    public synchronized Set<Long> getParticipantIds(LocalDate date) {
+        Map<Long, StudyRecord> records = recordsByDate.get(date);
+        return records == null ? Set.of() : new HashSet<>(records.keySet());
+    }
+
+    /** from부터 to까지(양끝 포함) 참여한 날 수 */
+    public synchronized int countDays(long userId, LocalDate from, LocalDate to) {
+        return matrix.count(userId, (int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public synchronized int countWeek(long userId, LocalDate date) {
+        return matrix.countWeek(userId, date);
+    }
+
+    public synchronized int countMonth(long userId, YearMonth month) {
+        return matrix.countMonth(userId, month);
+    }
+
+    /** 그날 기록한 멤버 수 */
+    public synchronized int activeMembers(LocalDate date) {
+        return matrix.activeMembers((int) date.toEpochDay());
+    }
+
+    /** from부터 to까지(양끝 포함) 모든 멤버의 참여일 수 합 */
+    public synchronized long memberDays(LocalDate from, LocalDate to) {
+        return matrix.memberDays((int) from.toEpochDay(), (int) to.toEpochDay());
+    }
+
+    public synchronized int currentStreak(long userId, LocalDate today) {
+        return matrix.currentStreak(userId, (int) today.toEpochDay());
+    }
+
+    public synchronized int longestStreak(long userId) {
+        return matrix.longestStreak(userId);
+    }
+
+    /**
+     * 기록 내용을 검색한다. from부터 to까지(양끝 포함, 채널 시간대 기준) 기록만 보며, null이면 그쪽으로는 제한하지 않는다.
+     * userId가 0이면 모든 멤버를 본다.
+     */
+    public synchronized SearchIndex.Result search(String text, LocalDate from, LocalDate to, long userId, int limit) {
+        long fromMillis = from == null ? Long.MIN_VALUE : from.atStartOfDay(zone).toInstant().toEpochMilli();
+        long toMillis = to == null ? Long.MAX_VALUE : to.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1;
+        return searchIndex.search(new SearchIndex.Query(text, fromMillis, toMillis, userId), limit);
+    }
+
+    private List<StudyRecord> indexAll(Collection<StudyRecord> records) {
+        Set<LocalDate> changed = new HashSet<>();
+        List<StudyRecord> added = new ArrayList<>();
+        for (StudyRecord record : records) {
+            if (index(record)) {
+                changed.add(record.date(zone));
+                added.add(record);
+            }
+        }
+        if (!changed.isEmpty()) {
+            notifyChanged(changed);
+        }
+        return added;
+    }
+
+    private boolean index(StudyRecord record) {
+        if (recordsById.putIfAbsent(record.messageId(), record) != null) {
+            return false;
+        }
+        lastMessageId = Math.max(lastMessageId, record.messageId());
+        LocalDate date = record.date(zone);
+        // 같은 날 여러 번 기록한 경우 가장 먼저 남긴 기록을 대표로 사용한다.
+        recordsByDate.computeIfAbsent(date, d -> new LinkedHashMap<>())
+                .merge(record.userId(), record, (existing, added) ->
+                        added.messageId() < existing.messageId() ? added : existing);
+        matrix.set(record.userId(), (int) date.toEpochDay());
+        if (searchIndex != null) {
+            searchIndex.add(record);
+        }
+        return true;
+    }
+
+    private void notifyChanged(Set<LocalDate> dates) {
+        for (Consumer<Set<LocalDate>> listener : changeListeners) {
+            listener.accept(dates);
+        }
+    }
+
+    private void clearMemory() {
+        recordsById.clear();
+        recordsByDate.clear();
+        matrix.clear();
+        fetchedDays.clear();
+        searchIndex = new SearchIndex();
+        coveredSince = LocalDate.MAX;
+        lastMessageId = 0;
+    }
+
+    private void appendToLog(StudyRecord record) throws IOException {
+        writeToLog(serialize(record));
+        log.force(false);
+    }
+
+    private void writeToLog(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (frame.hasRemaining()) {
+            log.write(frame);
+        }
+    }
+
+    private void saveSnapshot() {
+        try {
+            compact();
+        } catch (IOException e) {
+            System.err.println("❌ 참여 기록 스냅샷 저장 중 오류: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 현재 메모리 상태를 임시 파일에 스냅샷으로 쓰고 원자적으로 교체한 뒤 로그를 비운다.
+     */
+    private void compact() throws IOException {
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        List<StudyRecord> records = recordsById.values().stream()
+                .sorted(Comparator.comparingLong(StudyRecord::messageId))
+                .toList();
+
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+            CheckedOutputStream checked = new CheckedOutputStream(out, crc);
+            DataOutputStream data = new DataOutputStream(checked);
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeInt(SNAPSHOT_VERSION);
+            data.writeLong(coveredSince.toEpochDay());
+            data.writeInt(fetchedDays.size());
+            for (LocalDate day : fetchedDays) {
+                data.writeLong(day.toEpochDay());
+            }
+            data.writeInt(records.size());
+            for (StudyRecord record : records) {
+                writeRecord(data, record);
+            }
+            data.flush();
+            new DataOutputStream(out).writeLong(crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.truncate(0);
+        log.position(0);
+        log.force(true);
+        logEntries = 0;
+        corrupted = false;
+
+        // 색인은 기록에서 다시 만들 수 있으므로 저장에 실패해도 스냅샷은 유효하다.
+        try {
+            searchIndex.save(searchIndexFile);
+        } catch (IOException e) {
+            System.err.println("⚠️ 검색 색인 저장 중 오류: " + e.getMessage());
+        }
+    }
+
+    private static byte[] serialize(StudyRecord record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + record.content().length() * 3);
+        DataOutputStream data = new DataOutputStream(bytes);
+        writeRecord(data, record);
+        data.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] serializeCoverage(LocalDate from, LocalDate to) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeLong(COVERAGE_ENTRY);
+        data.writeLong(from.toEpochDay());
+        data.writeLong(to.toEpochDay());
+        data.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeRecord(DataOutputStream data, StudyRecord record) throws IOException {
+        data.writeLong(record.messageId());
+        data.writeLong(record.userId());
+        data.writeLong(record.timestamp());
+        data.writeUTF(record.content());
+    }
+
+    private static StudyRecord readRecord(DataInputStream data) throws IOException {
+        try {
+            return new StudyRecord(data.readLong(), data.readLong(), data.readLong(), data.readUTF());
+        } catch (EOFException e) {
+            throw new IOException("레코드가 잘렸습니다", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (log != null && log.isOpen()) {
+                log.force(true);
+                log.close();
+            }
+        } catch (IOException e) {
+            System.err.println("참여 기록 저장소 종료 중 오류: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.interactions.components.selections.StringSelectMenu;
+
+import java.awt.Color;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /참여도 결과의 스냅샷. 멤버별 참여율과 연속 기록을 한 번만 계산하고 정렬 기준마다 미리 정렬해 두며,
+ * 페이지를 넘기거나 정렬을 바꿀 때는 요청한 페이지의 임베드만 새로 만든다. 만든 뒤에는 바뀌지 않는다.
+ */
+public final class ParticipationView {
+    public static final int PAGE_SIZE = 15;
+
+    /** 버튼과 선택 메뉴의 customId 접두어: "참여도:{보기ID}:{정렬}:{페이지}" */
+    public static final String COMPONENT_PREFIX = "참여도:";
+
+    public enum Sort {
+        RATE("참여율순", Comparator.comparingDouble(Row::rate).reversed()),
+        STREAK("연속 참여순", Comparator.comparingInt(Row::currentStreak).reversed()
+                .thenComparing(Comparator.comparingInt(Row::longestStreak).reversed())),
+        NAME("이름순", Comparator.comparing(Row::name, String.CASE_INSENSITIVE_ORDER));
+
+        private final String label;
+        private final Comparator<Row> order;
+
+        Sort(String label, Comparator<Row> order) {
+            this.label = label;
+            // 같은 값이면 이름, 그다음 ID 순서로 두어 페이지를 넘겨도 순서가 흔들리지 않게 한다.
+            this.order = order.thenComparing(Row::name).thenComparingLong(Row::userId);
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    public record Row(long userId, String name, int participationCount, long daysSinceJoined, double rate,
+                      int currentStreak, int longestStreak) {
+    }
+
+    private final LocalDate today;
+    private final Map<Sort, Row[]> sorted = new EnumMap<>(Sort.class);
+
+    private ParticipationView(LocalDate today, Row[] rows) {
+        this.today = today;
+        for (Sort sort : Sort.values()) {
+            Row[] copy = rows.clone();
+            Arrays.sort(copy, sort.order);
+            sorted.put(sort, copy);
+        }
+    }
+
+    public static ParticipationView create(List<RosterMember> members, ParticipationStore store, LocalDate today) {
+        Row[] rows = new Row[members.size()];
+        int todayEpochDay = (int) today.toEpochDay();
+        ZoneId zone = store.zone();
+        for (int i = 0; i < rows.length; i++) {
+            RosterMember member = members.get(i);
+            LocalDate joinDate = member.joinDate(zone);
+            long daysSinceJoined = todayEpochDay - joinDate.toEpochDay() + 1;
+            int participationCount = store.countDays(member.userId(), joinDate, today);
+            double rate = (daysSinceJoined > 0) ? ((double) participationCount / daysSinceJoined) * 100 : 0;
+            rows[i] = new Row(member.userId(), member.effectiveName(), participationCount, daysSinceJoined, rate,
+                    store.currentStreak(member.userId(), today), store.longestStreak(member.userId()));
+        }
+        return new ParticipationView(today, rows);
+    }
+
+    public LocalDate today() {
+        return today;
+    }
+
+    public int size() {
+        return sorted.get(Sort.RATE).length;
+    }
+
+    public int pageCount() {
+        return Math.max(1, (size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    /** 범위를 벗어난 페이지는 처음이나 마지막 페이지로 맞춘다. */
+    public int clampPage(int page) {
+        return Math.max(0, Math.min(page, pageCount() - 1));
+    }
+
+    public MessageEmbed render(Sort sort, int page) {
+        Row[] rows = sorted.get(sort);
+        int from = clampPage(page) * PAGE_SIZE;
+        int to = Math.min(rows.length, from + PAGE_SIZE);
+
+        EmbedBuilder eb = new EmbedBuilder()
+                .setTitle("🏆 멤버별 스터디 참여율")
+                .setColor(new Color(70, 130, 180))
+                .setDescription("각 멤버가 서버에 참여한 날로부터의 참여율입니다. (" + sort.label() + ")")
+                .setFooter("페이지 " + (clampPage(page) + 1) + "/" + pageCount() + " · 멤버 " + rows.length + "명 · "
+                        + today.format(StudyBot.DATE_FORMATTER) + " 기준");
+        for (int i = from; i < to; i++) {
+            Row row = rows[i];
+            String fieldName = String.format("%d. %s (%.1f%%)", i + 1, row.name(), row.rate());
+            String fieldValue = String.format("참여: %d일 / 전체: %d일\n연속: %d일 (최장 %d일)",
+                    row.participationCount(), row.daysSinceJoined(), row.currentStreak(), row.longestStreak());
+            eb.addField(fieldName, fieldValue, true);
+        }
+        return eb.build();
+    }
+
+    /** 이전/다음 버튼과 정렬 선택 메뉴. 보기 ID로 어느 스냅샷을 넘기는지 찾는다. */
+    public List<ActionRow> components(long viewId, Sort sort, int page) {
+        int current = clampPage(page);
+        String prefix = COMPONENT_PREFIX + viewId + ":" + sort.name() + ":";
+        Button previous = Button.secondary(prefix + (current - 1), "◀ 이전").withDisabled(current == 0);
+        Button next = Button.secondary(prefix + (current + 1), "다음 ▶").withDisabled(current >= pageCount() - 1);
+
+        StringSelectMenu.Builder menu = StringSelectMenu.create(COMPONENT_PREFIX + viewId + ":정렬")
+                .setPlaceholder("정렬 기준");
+        for (Sort option : Sort.values()) {
+            menu.addOption(option.label(), option.name());
+        }
+        menu.setDefaultValues(sort.name());
+        return List.of(ActionRow.of(previous, next), ActionRow.of(menu.build()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.studybot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 재시작이 잦은 무료 플랜에서 시작 시간과 메모리 사용량을 확인하기 위한 프로세스 정보.
+ * 메모리는 리눅스의 /proc/self/status 에서 읽으며, 다른 OS에서는 -1을 돌려준다.
+ */
+final class ProcessStats {
+    private static final Path STATUS_FILE = Path.of("/proc/self/status");
+
+    private ProcessStats() {
+    }
+
+    /** JVM 프로세스가 시작된 뒤 지난 시간 */
+    static Duration uptime() {
+        Instant started = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+        return Duration.between(started, Instant.now());
+    }
+
+    /** 현재 상주 메모리(VmRSS) 바이트 수 */
+    static long residentBytes() {
+        return statusBytes("VmRSS:");
+    }
+
+    /** 지금까지 가장 컸던 상주 메모리(VmHWM) 바이트 수 */
+    static long peakResidentBytes() {
+        return statusBytes("VmHWM:");
+    }
+
+    /** 읽지 못하면 -1. 단위 변환은 값을 읽었을 때만 한다. */
+    private static long statusBytes(String field) {
+        long kilobytes = statusKilobytes(field);
+        return kilobytes < 0 ? -1 : kilobytes * 1024;
+    }
+
+    private static long statusKilobytes(String field) {
+        try {
+            for (String line : Files.readAllLines(STATUS_FILE)) {
+                if (line.startsWith(field)) {
+                    // 형식: "VmRSS:     123456 kB"
+                    return Long.parseLong(line.substring(field.length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // /proc 이 없는 환경
+        }
+        return -1;
+    }
+
+    static String describe() {
+        String started = String.format("시작 %.1f초", uptime().toMillis() / 1000.0);
+        long resident = residentBytes();
+        if (resident < 0) {
+            return started;
+        }
+        return started + String.format(", 메모리 %dMB (최대 %dMB)", resident >> 20, peakResidentBytes() >> 20);
+    }
+}
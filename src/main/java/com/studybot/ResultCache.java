@@ -0,0 +1,79 @@
+package com.studybot;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 명령어 결과를 보관하는 크기 제한 LRU 캐시.
+ * 계산 도중 무효화가 일어나면 오래된 결과가 다시 들어가지 않도록, 계산 전에 받은 토큰이 그대로일 때만 저장한다.
+ * 토큰은 채널(scope)별로 따로 두므로 한 채널에 기록이 쌓여도 다른 채널의 계산 결과는 버려지지 않는다.
+ * 적중과 실패는 캐시 이름을 라벨로 지표에도 함께 센다.
+ */
+public class ResultCache<V> {
+    private final Map<String, V> entries;
+    // 무효화할 때마다 늘어나는 전역 순번. 채널별로 마지막 무효화 순번을 토큰으로 쓰므로 토큰 값이 되풀이되지 않는다.
+    private long invalidations;
+    private long clearedAt;
+    private final Map<Long, Long> invalidatedAt = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Metrics.Counter hitCounter;
+    private final Metrics.Counter missCounter;
+
+    public ResultCache(String name, int maxEntries) {
+        this.hitCounter = Metrics.CACHE_HITS.labels(name);
+        this.missCounter = Metrics.CACHE_MISSES.labels(name);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized V get(String key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses.increment();
+            missCounter.increment();
+        } else {
+            hits.increment();
+            hitCounter.increment();
+        }
+        return value;
+    }
+
+    /** 계산을 시작하기 전에 받아 두었다가 put()에 넘긴다. scope는 결과가 속한 채널 ID다. */
+    public synchronized long token(long scope) {
+        return Math.max(clearedAt, invalidatedAt.getOrDefault(scope, 0L));
+    }
+
+    public synchronized void put(String key, V value, long scope, long token) {
+        if (token == token(scope)) {
+            entries.put(key, value);
+        }
+    }
+
+    /** scope 채널의 토큰을 바꾸고, condition에 맞는 결과를 지운다. */
+    public synchronized void invalidateIf(long scope, Predicate<String> condition) {
+        invalidatedAt.put(scope, ++invalidations);
+        entries.keySet().removeIf(condition);
+    }
+
+    public synchronized void clear() {
+        clearedAt = ++invalidations;
+        invalidatedAt.clear();
+        entries.clear();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,202 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.update.GuildMemberUpdateNicknameEvent;
+import net.dv8tion.jda.api.events.user.update.UserUpdateNameEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * 서버별 멤버 명단 캐시.
+ * 시작할 때 한 번 loadMembers()로 채운 뒤 가입/탈퇴/닉네임 변경 이벤트로 갱신하고, 주기적으로 전체를 다시 맞춘다.
+ * 명단은 이름순으로 정렬된 불변 스냅샷이라 명령어 처리 중에는 잠금 없이 읽을 수 있다.
+ */
+public class RosterCache extends ListenerAdapter {
+    private static final Comparator<RosterMember> BY_NAME = Comparator.comparing(RosterMember::effectiveName)
+            .thenComparingLong(RosterMember::userId);
+
+    private final Map<Long, Roster> rosters = new ConcurrentHashMap<>();
+    private final List<LongConsumer> changeListeners = new CopyOnWriteArrayList<>();
+
+    public Roster get(long guildId) {
+        return rosters.getOrDefault(guildId, Roster.EMPTY);
+    }
+
+    /**
+     * 명단 내용이 실제로 바뀌었을 때 서버 ID와 함께 호출된다.
+     */
+    public void addChangeListener(LongConsumer listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * 게이트웨이에서 서버 멤버 전체를 받아 명단을 채운다. 응답이 올 때까지 기다린다.
+     */
+    public void load(long guildId, StudyGateway gateway) {
+        long startNanos = System.nanoTime();
+        RosterMember[] sorted = gateway.loadMembers(guildId).stream()
+                .sorted(BY_NAME)
+                .toArray(RosterMember[]::new);
+        synchronized (this) {
+            publish(guildId, sorted);
+        }
+        Metrics.ROSTER_LOAD_DURATION.labels("startup").observeSince(startNanos);
+        System.out.println("👥 멤버 명단을 불러왔습니다: " + get(guildId).size() + "명");
+    }
+
+    public boolean isLoaded(long guildId) {
+        return rosters.containsKey(guildId);
+    }
+
+    /**
+     * 불러온 모든 서버의 명단을 주기적으로 다시 맞춘다. 서버를 찾을 수 없으면(탈퇴 등) 캐시에서 지운다.
+     */
+    public void startReconcile(ScheduledExecutorService scheduler, LongFunction<Guild> guildResolver, long periodHours) {
+        scheduler.scheduleAtFixedRate(() -> {
+            for (Long guildId : rosters.keySet()) {
+                Guild guild = guildResolver.apply(guildId);
+                if (guild == null) {
+                    rosters.remove(guildId);
+                    continue;
+                }
+                long startNanos = System.nanoTime();
+                guild.loadMembers()
+                        .onSuccess(members -> {
+                            replace(guildId, members);
+                            Metrics.ROSTER_LOAD_DURATION.labels("reconcile").observeSince(startNanos);
+                        })
+                        .onError(error -> System.err.println("멤버 명단 동기화 중 오류: " + error.getMessage()));
+            }
+        }, periodHours, periodHours, TimeUnit.HOURS);
+    }
+
+    private synchronized void replace(long guildId, Collection<Member> members) {
+        RosterMember[] sorted = members.stream()
+                .filter(member -> !member.getUser().isBot())
+                .map(RosterMember::of)
+                .sorted(BY_NAME)
+                .toArray(RosterMember[]::new);
+        publish(guildId, sorted);
+    }
+
+    @Override
+    public void onGuildMemberJoin(GuildMemberJoinEvent event) {
+        if (event.getUser().isBot()) {
+            return;
+        }
+        RosterMember added = RosterMember.of(event.getMember());
+        update(event.getGuild().getIdLong(), members -> {
+            members.put(added.userId(), added);
+            return members;
+        });
+    }
+
+    @Override
+    public void onGuildMemberRemove(GuildMemberRemoveEvent event) {
+        long userId = event.getUser().getIdLong();
+        update(event.getGuild().getIdLong(), members -> {
+            members.remove(userId);
+            return members;
+        });
+    }
+
+    @Override
+    public void onGuildMemberUpdateNickname(GuildMemberUpdateNicknameEvent event) {
+        Member member = event.getMember();
+        update(event.getGuild().getIdLong(), members -> {
+            members.computeIfPresent(member.getUser().getIdLong(),
+                    (id, existing) -> existing.withNames(member.getEffectiveName(), member.getUser().getName()));
+            return members;
+        });
+    }
+
+    @Override
+    public void onUserUpdateName(UserUpdateNameEvent event) {
+        long userId = event.getUser().getIdLong();
+        String userName = event.getUser().getName();
+        for (Long guildId : rosters.keySet()) {
+            update(guildId, members -> {
+                // 서버 닉네임이 없으면 표시 이름도 사용자 이름을 따라간다.
+                members.computeIfPresent(userId, (id, existing) -> existing.withNames(
+                        existing.effectiveName().equals(existing.userName()) ? userName : existing.effectiveName(),
+                        userName));
+                return members;
+            });
+        }
+    }
+
+    private synchronized void update(long guildId, UnaryOperator<Map<Long, RosterMember>> change) {
+        Roster current = rosters.get(guildId);
+        if (current == null) {
+            return;
+        }
+        Map<Long, RosterMember> members = new HashMap<>(current.byId);
+        RosterMember[] sorted = change.apply(members).values().stream()
+                .sorted(BY_NAME)
+                .toArray(RosterMember[]::new);
+        publish(guildId, sorted);
+    }
+
+    private void publish(long guildId, RosterMember[] sorted) {
+        Roster previous = rosters.put(guildId, new Roster(sorted));
+        if (previous != null && previous.members.equals(Arrays.asList(sorted))) {
+            return;
+        }
+        for (LongConsumer listener : changeListeners) {
+            listener.accept(guildId);
+        }
+    }
+
+    /**
+     * 특정 시점의 명단 스냅샷. 만들어진 뒤에는 바뀌지 않는다.
+     */
+    public static final class Roster {
+        static final Roster EMPTY = new Roster(new RosterMember[0]);
+
+        private final List<RosterMember> members;
+        private final Map<Long, RosterMember> byId;
+
+        /** 정렬되지 않은 멤버 목록으로 스냅샷을 만든다. */
+        static Roster of(Collection<RosterMember> members) {
+            return new Roster(members.stream().sorted(BY_NAME).toArray(RosterMember[]::new));
+        }
+
+        private Roster(RosterMember[] sorted) {
+            this.members = Collections.unmodifiableList(Arrays.asList(sorted));
+            this.byId = new HashMap<>(sorted.length * 2);
+            for (RosterMember member : sorted) {
+                byId.put(member.userId(), member);
+            }
+        }
+
+        /** 표시 이름순으로 정렬된 멤버 목록 (읽기 전용) */
+        public List<RosterMember> members() {
+            return members;
+        }
+
+        public RosterMember get(long userId) {
+            return byId.get(userId);
+        }
+
+        public int size() {
+            return members.size();
+        }
+    }
+}
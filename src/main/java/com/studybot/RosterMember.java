@@ -0,0 +1,32 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.entities.Member;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * 명단 캐시에 보관하는 멤버 정보. 봇 계정은 포함하지 않는다.
+ * 서버에 들어온 시각만 보관하고, 들어온 날짜는 채널마다 시간대가 다르므로 쓸 때 채널 시간대로 계산한다.
+ */
+public record RosterMember(long userId, String effectiveName, String userName, long joinedAtMillis) {
+
+    public static RosterMember of(Member member) {
+        return new RosterMember(member.getUser().getIdLong(), member.getEffectiveName(), member.getUser().getName(),
+                member.getTimeJoined().toInstant().toEpochMilli());
+    }
+
+    /** 해당 시간대 기준으로 서버에 들어온 날짜 */
+    public LocalDate joinDate(ZoneId zone) {
+        return Instant.ofEpochMilli(joinedAtMillis).atZone(zone).toLocalDate();
+    }
+
+    public String mention() {
+        return "<@" + userId + ">";
+    }
+
+    public RosterMember withNames(String effectiveName, String userName) {
+        return new RosterMember(userId, effectiveName, userName, joinedAtMillis);
+    }
+}
@@ -0,0 +1,558 @@
+package com.studybot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 스터디 기록 내용의 역색인.
+ * 글자나 숫자가 이어진 토큰을 두 글자씩(bigram) 잘라 색인하므로 형태소 분석 없이도 한국어 부분 검색이 된다. ("스프링" → 스프, 프링)
+ * 한 글자짜리 토큰은 그 글자 자체를 색인한다.
+ * 문서 번호는 추가된 순서대로 늘어나므로 포스팅 목록은 (이전 번호와의 차이, 출현 횟수)를 가변 길이 정수로 이어 붙이기만 하면 된다.
+ * 조회는 채널 기록을 읽지 않는다. 동기화는 호출하는 쪽(ParticipationStore)이 맡는다.
+ */
+public final class SearchIndex {
+    private static final int MAGIC = 0x53524348;
+    private static final int VERSION = 1;
+    private static final int EMPTY = 0;
+    private static final int UNIGRAM = 0xFFFF0000;
+
+    // BM25 매개변수
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<Hit> BY_RANK = Comparator.comparingDouble(Hit::score)
+            .thenComparingLong(hit -> hit.record().messageId());
+
+    /** 검색 조건. 시각은 epoch 밀리초(양끝 포함, 제한이 없으면 Long.MIN_VALUE/MAX_VALUE), userId가 0이면 모든 멤버 */
+    public record Query(String text, long fromMillis, long toMillis, long userId) {
+    }
+
+    public record Hit(StudyRecord record, double score) {
+    }
+
+    /** 점수순 상위 결과와 조건에 맞는 전체 건수 */
+    public record Result(List<Hit> hits, int total) {
+    }
+
+    private StudyRecord[] docs = new StudyRecord[64];
+    // 소문자로 바꾼 내용. 바뀐 글자가 없으면 원래 문자열을 그대로 가리킨다.
+    private String[] texts = new String[64];
+    private long[] timestamps = new long[64];
+    private long[] userIds = new long[64];
+    private int[] lengths = new int[64];
+    private int docCount;
+    private long totalLength;
+
+    // 용어(bigram 또는 한 글자) → 용어 번호. 오픈 어드레싱 해시
+    private int[] keys = new int[256];
+    private int[] slotTerm = new int[256];
+
+    // 용어 번호별 포스팅
+    private int[] termKeys = new int[128];
+    private byte[][] postings = new byte[128][];
+    private int[] postingLength = new int[128];
+    private int[] lastDoc = new int[128];
+    private int[] docFreq = new int[128];
+    private int termCount;
+
+    public int size() {
+        return docCount;
+    }
+
+    public void add(StudyRecord record) {
+        if (docCount == docs.length) {
+            int capacity = docs.length * 2;
+            docs = Arrays.copyOf(docs, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        int doc = docCount++;
+        setDocument(doc, record);
+
+        // 같은 용어가 여러 번 나오면 포스팅 하나에 출현 횟수로 기록한다.
+        int[] terms = new int[texts[doc].length()];
+        int[] size = new int[1];
+        forEachTerm(texts[doc], key -> terms[size[0]++] = key);
+        Arrays.sort(terms, 0, size[0]);
+        for (int i = 0; i < size[0]; ) {
+            int j = i;
+            while (j < size[0] && terms[j] == terms[i]) {
+                j++;
+            }
+            addPosting(termFor(terms[i]), doc, j - i);
+            i = j;
+        }
+    }
+
+    private void setDocument(int doc, StudyRecord record) {
+        docs[doc] = record;
+        texts[doc] = normalize(record.content());
+        timestamps[doc] = record.timestamp();
+        userIds[doc] = record.userId();
+        lengths[doc] = record.content().length();
+        totalLength += lengths[doc];
+    }
+
+    /**
+     * 검색어의 모든 토큰을 포함하는 기록 중 조건에 맞는 것을 BM25 점수순으로 최대 limit건 돌려준다.
+     * 점수가 같으면 최근 기록이 앞에 온다.
+     * 출현 횟수는 포스팅에서 읽으므로, 세 글자 이상 토큰이 실제로 이어져 있는지 확인할 때만 기록 내용을 본다.
+     */
+    public Result search(Query query, int limit) {
+        List<String> tokens = tokens(normalize(query.text()));
+        if (tokens.isEmpty() || docCount == 0) {
+            return new Result(List.of(), 0);
+        }
+
+        // 멤버, 기간 조건은 포스팅을 풀 때 바로 적용해 교집합에 들어가는 문서 수를 줄인다.
+        IntPredicate accept = query.userId() == 0 && query.fromMillis() == Long.MIN_VALUE && query.toMillis() == Long.MAX_VALUE
+                ? null
+                : doc -> (query.userId() == 0 || userIds[doc] == query.userId())
+                        && timestamps[doc] >= query.fromMillis() && timestamps[doc] <= query.toMillis();
+        double averageLength = (double) totalLength / docCount;
+        Matches candidates = null;
+        for (int i = 0; i < tokens.size() && (candidates == null || candidates.size > 0); i++) {
+            Matches matching = docsContaining(tokens.get(i), accept);
+            double idf = Math.log(1 + (docCount - matching.size + 0.5) / (matching.size + 0.5));
+            candidates = candidates == null
+                    ? matching.score(idf, lengths, averageLength)
+                    : candidates.intersect(matching.score(idf, lengths, averageLength));
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, BY_RANK);
+        int total = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            int doc = candidates.docs[i];
+            if (!containsLongTokens(texts[doc], tokens)) {
+                continue;
+            }
+            total++;
+            // 점수가 같을 때도 BY_RANK로 비교해야 색인에 늦게 들어간 옛 기록이 최근 기록을 밀어내지 않는다.
+            Hit hit = new Hit(docs[doc], candidates.scores[i]);
+            if (top.size() < limit || BY_RANK.compare(hit, top.peek()) > 0) {
+                top.add(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(BY_RANK.reversed());
+        return new Result(hits, total);
+    }
+
+    /** bigram이 모두 있어도 떨어져 있을 수 있으므로 세 글자 이상 토큰은 내용에서 직접 확인한다. */
+    private static boolean containsLongTokens(String text, List<String> tokens) {
+        for (String token : tokens) {
+            if (token.length() > 2 && !text.contains(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Matches docsContaining(String token, IntPredicate accept) {
+        if (token.length() == 1) {
+            // 한 글자 검색어는 그 글자가 들어간 모든 용어의 포스팅을 합치고, 출현 횟수는 1로 본다.
+            char c = token.charAt(0);
+            BitSet union = new BitSet(docCount);
+            for (int term = 0; term < termCount; term++) {
+                int key = termKeys[term];
+                if ((key & 0xFFFF) == c || (key >>> 16) == c) {
+                    Matches matches = decode(term, accept);
+                    for (int i = 0; i < matches.size; i++) {
+                        union.set(matches.docs[i]);
+                    }
+                }
+            }
+            int[] docs = union.stream().toArray();
+            int[] tf = new int[docs.length];
+            Arrays.fill(tf, 1);
+            return new Matches(docs, tf, docs.length);
+        }
+
+        int[] terms = new int[token.length() - 1];
+        for (int i = 0; i < terms.length; i++) {
+            int term = find(bigram(token.charAt(i), token.charAt(i + 1)));
+            if (term < 0) {
+                return new Matches(new int[0], new int[0], 0);
+            }
+            terms[i] = term;
+        }
+        // 가장 드문 용어부터 교집합을 구해 중간 결과를 작게 유지한다. 출현 횟수는 bigram 중 가장 적은 값으로 어림한다.
+        Integer[] order = new Integer[terms.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = terms[i];
+        }
+        Arrays.sort(order, Comparator.comparingInt(term -> docFreq[term]));
+
+        Matches result = decode(order[0], accept);
+        for (int i = 1; i < order.length && result.size > 0; i++) {
+            if (!order[i].equals(order[i - 1])) {
+                result = result.intersectMin(decode(order[i], null));
+            }
+        }
+        return result;
+    }
+
+    private Matches decode(int term, IntPredicate accept) {
+        byte[] bytes = postings[term];
+        int length = postingLength[term];
+        int[] docs = new int[docFreq[term]];
+        int[] tf = new int[docFreq[term]];
+        int size = 0;
+        int doc = -1;
+        int position = 0;
+        while (position < length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+
+            int count = 0;
+            shift = 0;
+            do {
+                b = bytes[position++];
+                count |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            if (accept == null || accept.test(doc)) {
+                docs[size] = doc;
+                tf[size++] = count;
+            }
+        }
+        return new Matches(docs, tf, size);
+    }
+
+    private void addPosting(int term, int doc, int tf) {
+        byte[] bytes = postings[term];
+        if (postingLength[term] + 10 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, postingLength[term] + 10));
+            postings[term] = bytes;
+        }
+        int position = writeVarint(bytes, postingLength[term], doc - lastDoc[term]);
+        postingLength[term] = writeVarint(bytes, position, tf);
+        lastDoc[term] = doc;
+        docFreq[term]++;
+    }
+
+    private static int writeVarint(byte[] bytes, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * 문서 번호 오름차순 목록과 문서별 값. 토큰 단계에서는 출현 횟수(tf)를, 점수를 매긴 뒤에는 누적 점수를 담는다.
+     */
+    private static final class Matches {
+        final int[] docs;
+        final int[] tf;
+        final double[] scores;
+        final int size;
+
+        Matches(int[] docs, int[] tf, int size) {
+            this(docs, tf, null, size);
+        }
+
+        private Matches(int[] docs, int[] tf, double[] scores, int size) {
+            this.docs = docs;
+            this.tf = tf;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        /** 이 토큰의 BM25 점수를 계산한다. */
+        Matches score(double idf, int[] lengths, double averageLength) {
+            double[] scores = new double[size];
+            for (int i = 0; i < size; i++) {
+                double relativeLength = lengths[docs[i]] / averageLength;
+                scores[i] = idf * tf[i] * (K1 + 1) / (tf[i] + K1 * (1 - B + B * relativeLength));
+            }
+            return new Matches(docs, null, scores, size);
+        }
+
+        /** 두 목록에 모두 있는 문서만 남기고 출현 횟수는 작은 쪽을 쓴다. */
+        Matches intersectMin(Matches other) {
+            int[] resultDocs = new int[Math.min(size, other.size)];
+            int[] resultTf = new int[resultDocs.length];
+            int count = 0;
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    resultDocs[count] = docs[i];
+                    resultTf[count++] = Math.min(tf[i++], other.tf[j++]);
+                }
+            }
+            return new Matches(resultDocs, resultTf, count);
+        }
+
+        /** 두 목록에 모두 있는 문서만 남기고 점수를 더한다. */
+        Matches intersect(Matches other) {
+            int[] resultDocs = new int[Math.min(size, other.size)];
+            double[] resultScores = new double[resultDocs.length];
+            int count = 0;
+            for (int i = 0, j = 0; i < size && j < other.size; ) {
+                if (docs[i] < other.docs[j]) {
+                    i++;
+                } else if (docs[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    resultDocs[count] = docs[i];
+                    resultScores[count++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Matches(resultDocs, null, resultScores, count);
+        }
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slotTerm[slot];
+            }
+            if (keys[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int termFor(int key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slotTerm[slot];
+            }
+            if (keys[slot] == EMPTY) {
+                if ((termCount + 1) * 2 > keys.length) {
+                    rehash();
+                    return termFor(key);
+                }
+                return newTerm(slot, key, new byte[4], 0, -1, 0);
+            }
+        }
+    }
+
+    private int newTerm(int slot, int key, byte[] bytes, int length, int last, int df) {
+        if (termCount == termKeys.length) {
+            int capacity = termKeys.length * 2;
+            termKeys = Arrays.copyOf(termKeys, capacity);
+            postings = Arrays.copyOf(postings, capacity);
+            postingLength = Arrays.copyOf(postingLength, capacity);
+            lastDoc = Arrays.copyOf(lastDoc, capacity);
+            docFreq = Arrays.copyOf(docFreq, capacity);
+        }
+        int term = termCount++;
+        keys[slot] = key;
+        slotTerm[slot] = term;
+        termKeys[term] = key;
+        postings[term] = bytes;
+        postingLength[term] = length;
+        lastDoc[term] = last;
+        docFreq[term] = df;
+        return term;
+    }
+
+    private void rehash() {
+        keys = new int[keys.length * 2];
+        slotTerm = new int[keys.length];
+        int mask = keys.length - 1;
+        for (int term = 0; term < termCount; term++) {
+            int slot = hash(termKeys[term]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = termKeys[term];
+            slotTerm[slot] = term;
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 색인 파일을 임시 파일에 쓰고 원자적으로 교체한다. 문서는 메시지 ID로만 기록하고 내용은 저장소 스냅샷에서 다시 찾는다.
+     */
+    public void save(Path file) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+            DataOutputStream data = new DataOutputStream(new CheckedOutputStream(out, crc));
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(docCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                data.writeLong(docs[doc].messageId());
+            }
+            data.writeInt(termCount);
+            for (int term = 0; term < termCount; term++) {
+                data.writeInt(termKeys[term]);
+                data.writeInt(docFreq[term]);
+                data.writeInt(lastDoc[term]);
+                data.writeInt(postingLength[term]);
+                data.write(postings[term], 0, postingLength[term]);
+            }
+            data.flush();
+            new DataOutputStream(out).writeLong(crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 색인 파일을 읽는다. 파일이 손상되었거나 저장소의 기록과 맞지 않으면 IOException을 던진다.
+     */
+    public static SearchIndex load(Path file, Map<Long, StudyRecord> recordsById) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream data = new DataInputStream(new CheckedInputStream(in, crc));
+            if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+                throw new IOException("알 수 없는 색인 형식");
+            }
+            int count = data.readInt();
+            if (count != recordsById.size()) {
+                throw new IOException("색인 문서 수 불일치: " + count + " / " + recordsById.size());
+            }
+
+            SearchIndex index = new SearchIndex();
+            int capacity = Math.max(64, Integer.highestOneBit(Math.max(count, 1)) * 2);
+            index.docs = new StudyRecord[capacity];
+            index.texts = new String[capacity];
+            index.timestamps = new long[capacity];
+            index.userIds = new long[capacity];
+            index.lengths = new int[capacity];
+            for (int doc = 0; doc < count; doc++) {
+                StudyRecord record = recordsById.get(data.readLong());
+                if (record == null) {
+                    throw new IOException("색인에 저장소에 없는 기록이 있습니다");
+                }
+                index.setDocument(doc, record);
+            }
+            index.docCount = count;
+
+            int terms = data.readInt();
+            while (index.keys.length < terms * 2) {
+                index.keys = new int[index.keys.length * 2];
+            }
+            index.slotTerm = new int[index.keys.length];
+            int mask = index.keys.length - 1;
+            for (int i = 0; i < terms; i++) {
+                int key = data.readInt();
+                int df = data.readInt();
+                int last = data.readInt();
+                byte[] bytes = new byte[data.readInt()];
+                data.readFully(bytes);
+                int slot = hash(key) & mask;
+                while (index.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                index.newTerm(slot, key, bytes, bytes.length, last, df);
+            }
+
+            long expected = crc.getValue();
+            if (new DataInputStream(in).readLong() != expected) {
+                throw new IOException("체크섬 불일치");
+            }
+            return index;
+        }
+    }
+
+    /** 글자 수가 바뀌지 않도록 한 글자씩 소문자로 바꾼다. 바꿀 글자가 없으면 같은 문자열을 돌려준다. */
+    static String normalize(String text) {
+        char[] chars = null;
+        for (int i = 0; i < text.length(); i++) {
+            char lower = Character.toLowerCase(text.charAt(i));
+            if (lower != text.charAt(i)) {
+                if (chars == null) {
+                    chars = text.toCharArray();
+                }
+                chars[i] = lower;
+            }
+        }
+        return chars == null ? text : new String(chars);
+    }
+
+    /** 검색어를 토큰으로 나눈다. 같은 토큰은 한 번만 센다. */
+    static List<String> tokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static void forEachTerm(String text, IntConsumer consumer) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                if (i - start == 1) {
+                    consumer.accept(UNIGRAM | text.charAt(start));
+                } else {
+                    for (int j = start; j < i - 1; j++) {
+                        consumer.accept(bigram(text.charAt(j), text.charAt(j + 1)));
+                    }
+                }
+                start = -1;
+            }
+        }
+    }
+
+    private static int bigram(char first, char second) {
+        return (first << 16) | second;
+    }
+}
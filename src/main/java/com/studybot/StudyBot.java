@@ -1,214 +1,510 @@
 package com.studybot;
 
+import com.studybot.ChannelRegistry.StudyChannel;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
-import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Message;
-import net.dv8tion.jda.api.entities.MessageHistory;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent;
+import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
 import net.dv8tion.jda.api.interactions.components.text.TextInput;
 import net.dv8tion.jda.api.interactions.components.text.TextInputStyle;
 import net.dv8tion.jda.api.interactions.modals.Modal;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.restaction.WebhookMessageCreateAction;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
 
 import java.awt.Color;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.DateTimeException;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class StudyBot {
     private static final String BOT_TOKEN = System.getenv("DISCORD_BOT_TOKEN");
+    // 선택 사항: 쉼표로 구분한 초기 스터디 채널 목록. 이후에는 /채널등록 으로 추가한다.
     private static final String CHANNEL_ID = System.getenv("DISCORD_CHANNEL_ID");
     public static final ZoneId KST = ZoneId.of("Asia/Seoul");
     public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy년 MM월 dd일");
+    public static final Path DATA_DIR = Path.of(Optional.ofNullable(System.getenv("STUDYBOT_DATA_DIR")).orElse("data"));
 
-    public static final int MESSAGE_HISTORY_LIMIT = 100;
     public static final int PARTICIPATION_HISTORY_LIMIT = 10000;
-
-    private JDA jda;
+    public static final long ROSTER_RECONCILE_HOURS = 6;
+    public static final int COMMAND_THREADS = 4;
+    public static final int COMMAND_QUEUE_CAPACITY = 64;
+    public static final Map<String, Integer> COMMAND_CONCURRENCY_LIMITS = Map.of("참여도", 2, "확인", 4, "검색", 4, "리포트", 2);
+    public static final int RESULT_CACHE_SIZE = 256;
+    public static final int SEARCH_RESULT_LIMIT = 10;
+    // 임베드 제목(256자)에 검색어를 그대로 넣을 수 있도록 입력 길이를 제한한다.
+    public static final int SEARCH_QUERY_MAX_LENGTH = 100;
+    // 버튼으로 넘겨 볼 /참여도 스냅샷을 보관하는 개수와 시간. 상호작용 토큰이 15분간 유효하므로 그만큼 둔다.
+    public static final int VIEW_CACHE_SIZE = 512;
+    public static final long VIEW_TTL_MINUTES = 15;
+    public static final int CHANNEL_WORKERS = 4;
+    // 자정 작업이 이미 알림을 보냈는지 확인할 때 다음 날 0시 이후로 훑어볼 메시지 수
+    public static final int POSTED_CHECK_MESSAGES = 500;
+    // Render가 넣어 주는 PORT를 우선 쓰고, 둘 다 없으면 Dockerfile에서 열어 둔 10000번을 쓴다.
+    public static final int METRICS_PORT = Integer.parseInt(Optional.ofNullable(System.getenv("METRICS_PORT"))
+            .or(() -> Optional.ofNullable(System.getenv("PORT"))).orElse("10000"));
+
+    // 봇에 필요한 인텐트는 멤버 이벤트뿐이다. 슬래시 명령어와 기록 조회에는 인텐트가 필요 없다.
+    private static final EnumSet<GatewayIntent> BOT_INTENTS = EnumSet.of(GatewayIntent.GUILD_MEMBERS);
+    // 마지막으로 등록에 성공한 슬래시 명령어 정의의 해시
+    private static final Path COMMAND_HASH_FILE = DATA_DIR.resolve("commands.sha256");
+
+    private static final Metrics.Counter COMMAND_UPDATE_REQUESTS = Metrics.REST_REQUESTS.labels("commands");
+
+    private ShardManager shardManager;
+    private ChannelRegistry channels;
+    private ChannelStores stores;
+    private RosterCache roster;
+    private CommandExecutor commandExecutor;
     private ScheduledExecutorService scheduler;
-    private LocalDate lastDate;
+    private OutboundPipeline outbound;
+    private StudyGateway gateway;
+    private StudyService service;
+    private ExecutorService channelWorkers;
+    private ChannelTasks channelTasks;
+    private DailyScheduler dailyScheduler;
+    private MetricsServer metricsServer;
 
     public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--cds-training")) {
+            trainClassDataSharing();
+            return;
+        }
         new StudyBot().start();
     }
 
+    /**
+     * Docker 이미지를 만들 때 AppCDS 아카이브를 뽑기 위한 실행. 디스코드에 접속하지 않고
+     * 시작 경로에서 쓰는 클래스(저장소, 검색 색인, 임베드, 명령어 정의, 샤드 설정)를 한 번씩 불러온 뒤 끝난다.
+     */
+    private static void trainClassDataSharing() throws IOException {
+        Path directory = Files.createTempDirectory("studybot-cds");
+        try (ChannelStores stores = new ChannelStores(directory.resolve("channels"))) {
+            ChannelRegistry channels = new ChannelRegistry(directory.resolve("channels.properties"));
+            channels.register(1, 2, KST);
+            try (ChannelStores.Lease lease = stores.acquire(channels.get(2))) {
+                ParticipationStore store = lease.store();
+                long now = System.currentTimeMillis();
+                store.add(new StudyRecord(HistoryRangeQuery.toSnowflake(Instant.ofEpochMilli(now)), 3, now, "CDS 학습 기록"));
+                store.search("학습", null, null, 0, SEARCH_RESULT_LIMIT);
+            }
+
+            commandHash(0, commandDefinitions());
+            new EmbedBuilder().setTitle("CDS").setColor(Color.GREEN).addField("학습", "기록", false).build();
+            configureShards(DefaultShardManagerBuilder.createLight("cds-training", BOT_INTENTS), channels);
+            new ResultCache<List<MessageEmbed>>("cds", 1);
+            new CommandExecutor(1, 1, COMMAND_CONCURRENCY_LIMITS, 1).close();
+            ProcessStats.describe();
+        } finally {
+            try (var paths = Files.walk(directory)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+        System.out.println("📦 CDS 학습 실행을 마쳤습니다.");
+    }
+
     public void start() throws Exception {
-        if (BOT_TOKEN == null || BOT_TOKEN.isEmpty() || CHANNEL_ID == null || CHANNEL_ID.isEmpty()) {
-            System.err.println("필수 환경변수(BOT_TOKEN, CHANNEL_ID)가 설정되지 않았습니다!");
+        if (BOT_TOKEN == null || BOT_TOKEN.isEmpty()) {
+            System.err.println("필수 환경변수(DISCORD_BOT_TOKEN)가 설정되지 않았습니다!");
             return;
         }
 
         // FIX: worker 타입이므로 Javalin 웹 서버 코드 제거
+        // 지표는 JDK 내장 HttpServer로만 내보낸다. 포트를 열지 못해도 봇은 계속 동작한다.
+        try {
+            metricsServer = MetricsServer.start(METRICS_PORT);
+        } catch (IOException e) {
+            System.err.println("⚠️ 지표 서버를 시작하지 못했습니다: " + e.getMessage());
+        }
 
-        jda = JDABuilder.createDefault(BOT_TOKEN)
-                .enableIntents(GatewayIntent.GUILD_MEMBERS)
-                .addEventListeners(new SlashCommandListener())
-                .build();
+        channels = new ChannelRegistry(DATA_DIR.resolve("channels.properties"));
+        stores = new ChannelStores(DATA_DIR.resolve("channels"));
+        roster = new RosterCache();
+        commandExecutor = new CommandExecutor(COMMAND_THREADS, COMMAND_QUEUE_CAPACITY, COMMAND_CONCURRENCY_LIMITS, 2);
+        scheduler = Executors.newScheduledThreadPool(1);
+        outbound = new OutboundPipeline(scheduler);
 
-        jda.awaitReady();
-        System.out.println("🤖 스터디 봇이 시작되었습니다!");
+        ResultCache<List<MessageEmbed>> resultCache = new ResultCache<>("확인", RESULT_CACHE_SIZE);
+
+        shardManager = configureShards(DefaultShardManagerBuilder.createLight(BOT_TOKEN, BOT_INTENTS), channels)
+                .addEventListeners(roster)
+                .build();
+        // 게이트웨이가 샤드 관리자를 쓰므로 명령어 리스너는 빌드 뒤에 붙인다. 준비되기 전에는 명령어가 들어오지 않는다.
+        gateway = new JdaGateway(shardManager, outbound);
+        service = new StudyService(channels, stores, roster, commandExecutor, resultCache, gateway);
+        shardManager.addEventListener(new SlashCommandListener(channels, service, outbound));
+        registerGauges();
+
+        for (JDA shard : shardManager.getShards()) {
+            shard.awaitReady();
+        }
+        System.out.println("🤖 스터디 봇이 시작되었습니다! (샤드 " + shardManager.getShards().size() + "개, "
+                + ProcessStats.describe() + ")");
+
+        channelWorkers = Executors.newFixedThreadPool(CHANNEL_WORKERS);
+        channelTasks = new ChannelTasks(channelWorkers);
+        dailyScheduler = new DailyScheduler(scheduler, channelWorkers, DATA_DIR.resolve("scheduler.properties"));
+
+        registerChannelsFromEnv();
+        // 준비(기록 동기화)가 오래 걸려도 뒤이은 해제가 먼저 끝나지 않도록 같은 채널의 작업은 순서대로 실행한다.
+        channels.addRegisterListener((previous, channel) -> channelTasks.run(channel.channelId(), () -> {
+            if (previous != null) {
+                // 시간대가 바뀌면 날짜 경계가 달라지므로 예약을 취소하고, 사용 중인 요청이 끝난 뒤 저장소를 새 시간대로 다시 연다.
+                deactivateChannel(previous, false);
+            }
+            activateChannel(channel, false);
+        }));
+        channels.addUnregisterListener(channel -> channelTasks.run(channel.channelId(), () -> deactivateChannel(channel, true)));
+        activateChannels();
+        roster.startReconcile(scheduler, shardManager::getGuildById, ROSTER_RECONCILE_HOURS);
 
         registerSlashCommands();
-        lastDate = LocalDate.now(KST);
-        startDateChecker();
-        sendStartupMessage();
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+        System.out.println("⏱️ 모든 채널 준비 완료: " + ProcessStats.describe());
+    }
+
+    /**
+     * 봇이 쓰는 것만 남긴 샤드 설정. 기록은 REST로 읽고 명단은 RosterCache가 따로 들고 있으므로
+     * JDA의 캐시(상태, 이모지, 음성 등)는 모두 끄고, 멤버는 스터디 채널이 있는 서버에서만 캐시하며 청킹하지 않는다.
+     * 캐시되지 않은 멤버의 닉네임 변경은 주기적인 명단 재동기화에서 반영된다.
+     */
+    static DefaultShardManagerBuilder configureShards(DefaultShardManagerBuilder builder, ChannelRegistry channels) {
+        return builder
+                .setMemberCachePolicy(member -> channels.hasGuild(member.getGuild().getIdLong()))
+                .setChunkingFilter(ChunkingFilter.NONE)
+                .setLargeThreshold(50);
+    }
+
+    private void registerGauges() {
+        Metrics.gauge("studybot_command_queue_depth", "명령어 실행기 대기열에 쌓인 작업 수", commandExecutor::queueSize);
+        Metrics.gauge("studybot_command_active", "명령어 실행기에서 실행 중인 작업 수", commandExecutor::activeCount);
+        Metrics.gauge("studybot_gateway_ping_milliseconds", "샤드 평균 게이트웨이 핑", shardManager::getAverageGatewayPing);
+        Metrics.gauge("studybot_study_channels", "등록된 스터디 채널 수", () -> channels.all().size());
+        if (ProcessStats.residentBytes() >= 0) {
+            // /proc 이 없는 환경에서는 음수 값을 내보내지 않도록 등록하지 않는다.
+            Metrics.gauge("studybot_resident_memory_bytes", "프로세스 상주 메모리(VmRSS)", ProcessStats::residentBytes);
+        }
     }
 
     private void registerSlashCommands() {
-        jda.updateCommands().addCommands(
+        List<CommandData> commands = commandDefinitions();
+        long applicationId = shardManager.getShards().get(0).getSelfUser().getIdLong();
+        String hash = commandHash(applicationId, commands);
+        if (hash.equals(loadCommandHash())) {
+            System.out.println("✅ 슬래시 명령어가 바뀌지 않아 등록을 건너뜁니다.");
+            return;
+        }
+
+        // 전역 명령어는 한 샤드에서만 등록하면 모든 서버에 적용된다.
+        COMMAND_UPDATE_REQUESTS.increment();
+        shardManager.getShards().get(0).updateCommands().addCommands(commands).queue(
+                success -> {
+                    System.out.println("✅ 슬래시 명령어가 성공적으로 등록되었습니다.");
+                    saveCommandHash(hash);
+                },
+                error -> System.err.println("❌ 슬래시 명령어 등록에 실패했습니다: " + error)
+        );
+    }
+
+    static List<CommandData> commandDefinitions() {
+        return List.of(
                 Commands.slash("기록", "오늘의 스터디 참여를 기록하는 팝업창을 엽니다."),
                 Commands.slash("참여도", "멤버별 누적 스터디 참여율을 확인합니다."),
                 Commands.slash("확인", "특정 날짜의 참여 현황과 미참여자를 확인합니다.")
                         .addOption(OptionType.STRING, "날짜", "확인할 날짜 (YYYY-MM-DD 형식, 비워두면 오늘)", false),
-                Commands.slash("도움말", "봇의 모든 명령어를 확인합니다.")
-        ).queue(
-                success -> System.out.println("✅ 슬래시 명령어가 성공적으로 등록되었습니다."),
-                error -> System.err.println("❌ 슬래시 명령어 등록에 실패했습니다: " + error)
+                Commands.slash("검색", "스터디 기록 내용을 검색합니다.")
+                        .addOptions(new OptionData(OptionType.STRING, "검색어", "찾을 내용 (여러 단어는 모두 포함된 기록만)", true)
+                                .setMaxLength(SEARCH_QUERY_MAX_LENGTH))
+                        .addOption(OptionType.USER, "멤버", "이 멤버의 기록만 검색", false)
+                        .addOption(OptionType.STRING, "시작", "검색 시작 날짜 (YYYY-MM-DD 형식)", false)
+                        .addOption(OptionType.STRING, "끝", "검색 끝 날짜 (YYYY-MM-DD 형식)", false),
+                Commands.slash("리포트", "기간별 참여 리포트를 확인합니다.")
+                        .addOptions(periodOption())
+                        .addOption(OptionType.STRING, "시작", "직접 지정할 시작 날짜 (YYYY-MM-DD 형식)", false)
+                        .addOption(OptionType.STRING, "끝", "시작과 함께 지정할 끝 날짜 (YYYY-MM-DD 형식, 비워두면 오늘)", false),
+                Commands.slash("도움말", "봇의 모든 명령어를 확인합니다."),
+                Commands.slash("채널등록", "이 채널을 스터디 채널로 등록합니다.")
+                        .addOption(OptionType.STRING, "시간대", "자정 기준 시간대 (예: Asia/Seoul, 비워두면 한국 시간)", false)
+                        .setGuildOnly(true)
+                        .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER)),
+                Commands.slash("채널해제", "이 채널의 스터디 채널 등록을 해제합니다.")
+                        .setGuildOnly(true)
+                        .setDefaultPermissions(DefaultMemberPermissions.enabledFor(Permission.MANAGE_SERVER))
         );
     }
 
-    private void startDateChecker() {
-        scheduler = Executors.newScheduledThreadPool(1);
-        scheduler.scheduleAtFixedRate(() -> {
-            try {
-                LocalDate currentDate = LocalDate.now(KST);
-                if (!currentDate.equals(lastDate)) {
-                    System.out.println("🗓️ 날짜가 변경되었습니다: " + lastDate + " → " + currentDate);
-                    runDailyAbsenceCheck(lastDate);
-                    lastDate = currentDate;
-                }
-            } catch (Exception e) {
-                System.err.println("날짜 체크 중 오류 발생: " + e.getMessage());
-                e.printStackTrace();
+    private static OptionData periodOption() {
+        OptionData option = new OptionData(OptionType.STRING, "기간", "리포트 기간 (비워두면 이번 주)", false);
+        for (ParticipationReport.Period period : ParticipationReport.Period.values()) {
+            option.addChoice(period.label(), period.name());
+        }
+        return option;
+    }
+
+    /** 봇 ID와 명령어 정의 JSON의 SHA-256. 둘 중 하나라도 바뀌면 다시 등록한다. */
+    static String commandHash(long applicationId, List<CommandData> commands) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Long.toString(applicationId).getBytes(StandardCharsets.UTF_8));
+            for (CommandData command : commands) {
+                digest.update(command.toData().toString().getBytes(StandardCharsets.UTF_8));
             }
-        }, 0, 1, TimeUnit.MINUTES);
-        System.out.println("📅 날짜 체크 스케줄러가 시작되었습니다.");
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    private void runDailyAbsenceCheck(LocalDate dateToCheck) {
-        TextChannel studyChannel = jda.getTextChannelById(CHANNEL_ID);
-        if (studyChannel == null) {
-            System.err.println("❌ 스터디 채널을 찾을 수 없습니다: " + CHANNEL_ID);
-            return;
+    private static String loadCommandHash() {
+        try {
+            return Files.readString(COMMAND_HASH_FILE).trim();
+        } catch (IOException e) {
+            return "";
         }
+    }
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                List<Member> allMembers = studyChannel.getGuild().loadMembers().get().stream()
-                        .filter(member -> !member.getUser().isBot())
-                        .collect(Collectors.toList());
+    private static void saveCommandHash(String hash) {
+        try {
+            Files.createDirectories(COMMAND_HASH_FILE.getParent());
+            Files.writeString(COMMAND_HASH_FILE, hash);
+        } catch (IOException e) {
+            System.err.println("⚠️ 슬래시 명령어 해시를 저장하지 못했습니다: " + e.getMessage());
+        }
+    }
 
-                Set<String> participantIds = getParticipantIds(studyChannel, dateToCheck);
+    private void registerChannelsFromEnv() throws IOException {
+        if (CHANNEL_ID == null || CHANNEL_ID.isBlank()) {
+            return;
+        }
+        for (String id : CHANNEL_ID.split(",")) {
+            TextChannel channel = shardManager.getTextChannelById(id.trim());
+            if (channel == null) {
+                System.err.println("❌ 스터디 채널을 찾을 수 없습니다: " + id.trim());
+                continue;
+            }
+            if (!channels.contains(channel.getIdLong())) {
+                // 단일 채널로 운영하던 시절의 기록은 환경변수로 지정한 채널의 기록이다.
+                stores.migrateLegacy(DATA_DIR.resolve("participation"), channel.getIdLong());
+                channels.register(channel.getGuild().getIdLong(), channel.getIdLong(), KST);
+            }
+        }
+    }
 
-                List<Member> absentMembers = allMembers.stream()
-                        .filter(member -> !participantIds.contains(member.getUser().getId()))
-                        .collect(Collectors.toList());
+    /**
+     * 등록된 모든 채널을 작업자 풀에서 동시에 준비하고, 모두 끝날 때까지 기다린다.
+     */
+    private void activateChannels() {
+        if (channels.all().isEmpty()) {
+            System.out.println("ℹ️ 등록된 스터디 채널이 없습니다. 스터디 채널에서 /채널등록 을 실행해주세요.");
+            return;
+        }
+        CompletableFuture.allOf(channels.all().stream()
+                .map(channel -> channelTasks.run(channel.channelId(), () -> activateChannel(channel, true)))
+                .toArray(CompletableFuture[]::new)).join();
+    }
 
-                if (!absentMembers.isEmpty()) {
-                    sendAbsenceNotification(studyChannel, absentMembers);
-                }
-            } catch (Exception e) {
-                System.err.println("❌ 미참여자 체크 중 오류: " + e.getMessage());
-                e.printStackTrace();
+    /**
+     * 채널 기록을 맞추고 자정 작업을 예약한다. 예약 기록이 없을 때, 시작하면서 준비하는 채널은 상태 파일을 잃었을 수 있으므로
+     * 어제 작업을 다시 실행하고, 방금 등록한 채널은 아직 봇으로 기록한 사람이 없으므로 다음 자정부터 실행한다.
+     */
+    private void activateChannel(StudyChannel studyChannel, boolean startup) {
+        try (Metrics.CommandScope scope = Metrics.command("startup")) {
+            service.synchronize(studyChannel);
+            if (!studyChannel.equals(channels.get(studyChannel.channelId()))) {
+                // 동기화하는 동안 등록이 해제되었거나 설정이 바뀌었다. 뒤이은 작업이 정리하거나 다시 준비한다.
+                System.out.println("ℹ️ 채널 " + studyChannel.channelId() + " 설정이 바뀌어 예약을 건너뜁니다.");
+                return;
             }
-        });
+            LocalDate today = dailyScheduler.today(studyChannel.zone());
+            LocalDate initialLastProcessed = startup ? today.minusDays(2) : today.minusDays(1);
+            dailyScheduler.schedule(absenceJobId(studyChannel), studyChannel.zone(), initialLastProcessed,
+                    date -> service.checkAbsence(studyChannel, date));
+            dailyScheduler.schedule(weeklyReportJobId(studyChannel), studyChannel.zone(), initialLastProcessed,
+                    date -> service.postWeeklyReport(studyChannel, date));
+            sendStartupMessage(studyChannel);
+        } catch (Exception e) {
+            System.err.println("❌ 채널 " + studyChannel.channelId() + " 준비 중 오류: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
 
-    private Set<String> getParticipantIds(TextChannel channel, LocalDate date) {
-        OffsetDateTime startOfDay = date.atStartOfDay(KST).toOffsetDateTime();
-        OffsetDateTime endOfDay = date.atTime(LocalTime.MAX).atZone(KST).toOffsetDateTime();
+    /** forget이면 등록 해제이므로 예약 기록도 지워, 나중에 다시 등록했을 때 그동안의 날짜를 몰아서 실행하지 않는다. */
+    private void deactivateChannel(StudyChannel studyChannel, boolean forget) {
+        if (forget) {
+            dailyScheduler.remove(absenceJobId(studyChannel));
+            dailyScheduler.remove(weeklyReportJobId(studyChannel));
+        } else {
+            dailyScheduler.cancel(absenceJobId(studyChannel));
+            dailyScheduler.cancel(weeklyReportJobId(studyChannel));
+        }
+        stores.close(studyChannel.channelId());
+    }
 
-        return channel.getHistory().retrievePast(MESSAGE_HISTORY_LIMIT).complete().stream()
-                .filter(msg -> msg.getAuthor().equals(jda.getSelfUser()) && !msg.getEmbeds().isEmpty())
-                .filter(msg -> {
-                    OffsetDateTime msgTime = msg.getTimeCreated();
-                    return !msgTime.isBefore(startOfDay) && !msgTime.isAfter(endOfDay);
-                })
-                .map(msg -> msg.getEmbeds().get(0))
-                .filter(embed -> embed.getFooter() != null &&
-                        embed.getFooter().getText() != null &&
-                        embed.getFooter().getText().startsWith("참여자 ID:"))
-                .map(embed -> embed.getFooter().getText().substring("참여자 ID: ".length()))
-                .collect(Collectors.toSet());
+    private static String absenceJobId(StudyChannel studyChannel) {
+        return "absence:" + studyChannel.channelId();
     }
 
-    private void sendAbsenceNotification(TextChannel channel, List<Member> absentMembers) {
-        StringBuilder message = new StringBuilder("🔔 **어제 스터디 기록이 없는 멤버입니다. 오늘 꼭 기록해주세요!**\n");
-        absentMembers.forEach(member -> message.append(member.getAsMention()).append(" "));
+    private static String weeklyReportJobId(StudyChannel studyChannel) {
+        return "weekly-report:" + studyChannel.channelId();
+    }
 
-        channel.sendMessage(message.toString())
-                .setAllowedMentions(List.of(Message.MentionType.USER))
-                .queue();
+    private void sendStartupMessage(StudyChannel studyChannel) {
+        gateway.sendMessages("message", studyChannel.channelId(), List.of("```📚 스터디 관리 봇이 시작되었습니다. (/도움말)```"))
+                .exceptionally(error -> {
+                    System.err.println("❌ 시작 메시지 전송 중 오류: " + error.getMessage());
+                    return null;
+                });
     }
 
-    private void sendStartupMessage() {
-        TextChannel channel = jda.getTextChannelById(CHANNEL_ID);
-        if (channel != null) {
-            channel.sendMessage("```📚 스터디 관리 봇이 시작되었습니다. (/도움말)```").queue();
+    public void shutdown() {
+        shutdownExecutor(scheduler);
+        shutdownExecutor(channelWorkers);
+        if (commandExecutor != null) {
+            commandExecutor.close();
+        }
+        if (shardManager != null) {
+            shardManager.shutdown();
         }
+        if (stores != null) {
+            stores.close();
+        }
+        if (metricsServer != null) {
+            metricsServer.close();
+        }
+        System.out.println("👋 스터디 봇이 안전하게 종료되었습니다.");
     }
 
-    public void shutdown() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
+    private static void shutdownExecutor(ExecutorService executor) {
+        if (executor != null && !executor.isShutdown()) {
+            executor.shutdown();
             try {
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
                 }
             } catch (InterruptedException e) {
-                scheduler.shutdownNow();
+                executor.shutdownNow();
                 Thread.currentThread().interrupt();
             }
         }
-        if (jda != null) {
-            jda.shutdown();
-        }
-        System.out.println("👋 스터디 봇이 안전하게 종료되었습니다.");
     }
 }
 
 class SlashCommandListener extends ListenerAdapter {
+    private static final Metrics.Histogram DATE_CHECK_LATENCY = Metrics.COMMAND_DURATION.labels("확인");
+    private static final Metrics.Histogram PARTICIPATION_LATENCY = Metrics.COMMAND_DURATION.labels("참여도");
+    private static final Metrics.Histogram SEARCH_LATENCY = Metrics.COMMAND_DURATION.labels("검색");
+    private static final Metrics.Histogram REPORT_LATENCY = Metrics.COMMAND_DURATION.labels("리포트");
+
+    private final ChannelRegistry channels;
+    private final StudyService service;
+    private final OutboundPipeline outbound;
+    private final ViewCache<ParticipationView> participationViews =
+            new ViewCache<>(StudyBot.VIEW_CACHE_SIZE, Duration.ofMinutes(StudyBot.VIEW_TTL_MINUTES));
+
+    SlashCommandListener(ChannelRegistry channels, StudyService service, OutboundPipeline outbound) {
+        this.channels = channels;
+        this.service = service;
+        this.outbound = outbound;
+    }
 
     @Override
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        if (!isValidChannel(event)) {
+        long startNanos = System.nanoTime();
+        // /확인, /참여도 는 결과가 준비되는 시점에 직접 기록하고, 나머지는 응답 직후 기록한다.
+        try (Metrics.CommandScope scope = Metrics.command(event.getName())) {
+            if (dispatch(event, startNanos)) {
+                Metrics.COMMAND_DURATION.labels(event.getName()).observeSince(startNanos);
+            }
+        }
+    }
+
+    /** 응답을 마쳤으면 true, 명령어 실행기로 넘겨 비동기로 이어지면 false를 돌려준다. */
+    private boolean dispatch(SlashCommandInteractionEvent event, long startNanos) {
+        switch (event.getName()) {
+            case "채널등록" -> {
+                registerChannel(event);
+                return true;
+            }
+            case "채널해제" -> {
+                unregisterChannel(event);
+                return true;
+            }
+            default -> {
+            }
+        }
+
+        StudyChannel studyChannel = channels.get(event.getChannel().getIdLong());
+        if (studyChannel == null) {
             event.reply("이 채널에서는 스터디 봇 명령어를 사용할 수 없습니다.").setEphemeral(true).queue();
-            return;
+            return true;
         }
 
         switch (event.getName()) {
             case "기록" -> showRecordModal(event);
-            case "참여도" -> calculateAndSendParticipationRate(event);
-            case "확인" -> checkRecordsByDate(event);
+            case "참여도" -> {
+                return calculateAndSendParticipationRate(event, studyChannel, startNanos);
+            }
+            case "확인" -> {
+                return checkRecordsByDate(event, studyChannel, startNanos);
+            }
+            case "검색" -> {
+                return searchRecords(event, studyChannel, startNanos);
+            }
+            case "리포트" -> {
+                return sendReport(event, studyChannel, startNanos);
+            }
             case "도움말" -> sendHelpMessage(event);
             default -> event.reply("알 수 없는 명령어입니다.").setEphemeral(true).queue();
         }
+        return true;
     }
 
     @Override
@@ -226,20 +522,94 @@ class SlashCommandListener extends ListenerAdapter {
         }
 
         User user = event.getUser();
-        EmbedBuilder eb = new EmbedBuilder()
-                .setAuthor(user.getName(), null, user.getAvatarUrl())
-                .setColor(new Color(0x3BA55D))
-                .setDescription(contentOpt.get().trim())
-                .setFooter("참여자 ID: " + user.getId())
-                .setTimestamp(event.getTimeCreated());
+        String content = contentOpt.get().trim();
+
+        StudyChannel studyChannel = channels.get(event.getChannel().getIdLong());
+        if (studyChannel == null) {
+            event.reply("이 채널은 스터디 채널로 등록되어 있지 않습니다.").setEphemeral(true).queue();
+            return;
+        }
 
         event.reply("✅ 기록이 성공적으로 등록되었습니다!").setEphemeral(true).queue();
-        event.getChannel().sendMessageEmbeds(eb.build()).queue();
+        try (Metrics.CommandScope scope = Metrics.command("기록")) {
+            service.record(studyChannel, new StudyGateway.Author(user.getIdLong(), user.getName(), user.getAvatarUrl()),
+                    content, event.getTimeCreated().toInstant()).exceptionally(error -> {
+                        System.err.println("❌ 기록 전송 중 오류: " + error.getMessage());
+                        return null;
+                    });
+        }
+    }
+
+    @Override
+    public void onButtonInteraction(ButtonInteractionEvent event) {
+        String componentId = event.getComponentId();
+        if (!componentId.startsWith(ParticipationView.COMPONENT_PREFIX)) {
+            return;
+        }
+        // "참여도:{보기ID}:{정렬}:{페이지}"
+        String[] parts = componentId.substring(ParticipationView.COMPONENT_PREFIX.length()).split(":");
+        showParticipationPage(event, Long.parseLong(parts[0]), ParticipationView.Sort.valueOf(parts[1]),
+                Integer.parseInt(parts[2]));
+    }
+
+    @Override
+    public void onStringSelectInteraction(StringSelectInteractionEvent event) {
+        String componentId = event.getComponentId();
+        if (!componentId.startsWith(ParticipationView.COMPONENT_PREFIX) || event.getValues().isEmpty()) {
+            return;
+        }
+        // "참여도:{보기ID}:정렬" - 정렬을 바꾸면 첫 페이지부터 보여 준다.
+        String[] parts = componentId.substring(ParticipationView.COMPONENT_PREFIX.length()).split(":");
+        showParticipationPage(event, Long.parseLong(parts[0]), ParticipationView.Sort.valueOf(event.getValues().get(0)), 0);
+    }
+
+    /**
+     * 보관해 둔 스냅샷에서 요청한 페이지만 그려 원래 메시지를 고친다. 채널 기록 조회나 재계산은 하지 않는다.
+     */
+    private void showParticipationPage(GenericComponentInteractionCreateEvent event, long viewId,
+                                       ParticipationView.Sort sort, int page) {
+        ParticipationView view = participationViews.get(viewId);
+        if (view == null) {
+            event.reply("⌛ 참여율 결과가 만료되었습니다. `/참여도` 를 다시 실행해주세요.").setEphemeral(true).queue();
+            return;
+        }
+        event.editMessageEmbeds(view.render(sort, page))
+                .setComponents(view.components(viewId, sort, page))
+                .queue();
     }
 
-    private boolean isValidChannel(SlashCommandInteractionEvent event) {
-        String channelId = System.getenv("DISCORD_CHANNEL_ID");
-        return channelId != null && channelId.equals(event.getChannel().getId());
+    private void registerChannel(SlashCommandInteractionEvent event) {
+        if (!event.isFromGuild()) {
+            event.reply("서버 채널에서만 사용할 수 있습니다.").setEphemeral(true).queue();
+            return;
+        }
+        if (event.getChannelType() != ChannelType.TEXT) {
+            // 스레드, 음성 채널 채팅, 포럼 글은 기록을 읽거나 보낼 수 없다.
+            event.reply("⚠️ 일반 텍스트 채널에서만 스터디 채널로 등록할 수 있습니다.").setEphemeral(true).queue();
+            return;
+        }
+
+        ZoneId zone;
+        try {
+            OptionMapping zoneOption = event.getOption("시간대");
+            zone = zoneOption == null ? StudyBot.KST : ZoneId.of(zoneOption.getAsString().trim());
+        } catch (DateTimeException e) {
+            event.reply("⚠️ 알 수 없는 시간대입니다. `Asia/Seoul` 과 같은 형식으로 입력해주세요.").setEphemeral(true).queue();
+            return;
+        }
+
+        boolean added = channels.register(event.getGuild().getIdLong(), event.getChannel().getIdLong(), zone);
+        event.reply(added
+                ? "✅ 이 채널을 스터디 채널로 등록했습니다. (시간대: " + zone.getId() + ")"
+                : "✅ 스터디 채널 설정을 변경했습니다. (시간대: " + zone.getId() + ")").queue();
+    }
+
+    private void unregisterChannel(SlashCommandInteractionEvent event) {
+        if (channels.unregister(event.getChannel().getIdLong())) {
+            event.reply("✅ 스터디 채널 등록을 해제했습니다. 기존 기록은 보관됩니다.").queue();
+        } else {
+            event.reply("이 채널은 스터디 채널로 등록되어 있지 않습니다.").setEphemeral(true).queue();
+        }
     }
 
     private void showRecordModal(SlashCommandInteractionEvent event) {
@@ -262,180 +632,183 @@ class SlashCommandListener extends ListenerAdapter {
                 .setColor(new Color(88, 101, 242))
                 .setDescription("봇의 모든 기능을 확인하세요!")
                 .addField("`/기록`", "오늘의 스터디 참여를 기록하는 팝업창을 엽니다.", false)
-                .addField("`/참여도`", "모든 멤버의 누적 참여율을 확인합니다.", false)
+                .addField("`/참여도`", "모든 멤버의 누적 참여율을 확인합니다. 버튼으로 페이지를 넘기고 참여율/연속 참여/이름순으로 정렬할 수 있습니다.", false)
                 .addField("`/확인 [날짜: YYYY-MM-DD]`", "특정 날짜의 참여/미참여 현황을 확인합니다.", false)
+                .addField("`/검색 [검색어] [멤버] [시작] [끝]`", "기록 내용을 검색합니다. 멤버와 기간으로 좁힐 수 있습니다.", false)
+                .addField("`/리포트 [기간] [시작] [끝]`", "이번 주, 지난 달 등 기간별 참여율, 일별 참여 인원, 상위 멤버를 확인합니다.", false)
                 .addField("`/도움말`", "지금 보고 있는 이 도움말을 표시합니다.", false)
-                .setFooter("매일 자정, 어제 스터디를 기록하지 않은 멤버를 자동으로 멘션합니다.");
+                .addField("`/채널등록 [시간대]`", "이 채널을 스터디 채널로 등록합니다. (서버 관리 권한 필요)", false)
+                .addField("`/채널해제`", "이 채널의 스터디 채널 등록을 해제합니다. (서버 관리 권한 필요)", false)
+                .setFooter("매일 자정, 어제 스터디를 기록하지 않은 멤버를 자동으로 멘션하고, 매주 월요일 0시에 주간 리포트를 올립니다.");
 
         event.replyEmbeds(eb.build()).setEphemeral(true).queue();
     }
 
-    private void checkRecordsByDate(SlashCommandInteractionEvent event) {
-        event.deferReply().setEphemeral(true).queue();
-
-        LocalDate dateToCheck = parseDateOption(event.getOption("날짜"));
+    private boolean checkRecordsByDate(SlashCommandInteractionEvent event, StudyChannel studyChannel, long startNanos) {
+        LocalDate dateToCheck = parseDateOption(event.getOption("날짜"), LocalDate.now(studyChannel.zone()));
         if (dateToCheck == null) {
-            event.getHook().sendMessage("⚠️ 날짜 형식이 올바르지 않습니다. `YYYY-MM-DD` 형식으로 입력해주세요.").queue();
-            return;
+            event.reply("⚠️ 날짜 형식이 올바르지 않습니다. `YYYY-MM-DD` 형식으로 입력해주세요.").setEphemeral(true).queue();
+            return true;
         }
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                processDateCheck(event, dateToCheck);
-            } catch (Exception e) {
-                System.err.println("❌ 날짜별 확인 중 오류: " + e.getMessage());
-                e.printStackTrace();
-                event.getHook().sendMessage("⚠️ 현황을 불러오는 중 오류가 발생했습니다.").queue();
-            }
-        });
+        return replyWith(event, service.checkDate(studyChannel, dateToCheck), "날짜별 확인", DATE_CHECK_LATENCY, startNanos);
     }
 
-    private LocalDate parseDateOption(OptionMapping dateOption) {
-        try {
-            if (dateOption == null) {
-                return LocalDate.now(StudyBot.KST);
-            }
-            return LocalDate.parse(dateOption.getAsString(), DateTimeFormatter.ISO_LOCAL_DATE);
-        } catch (DateTimeParseException e) {
-            return null;
+    /**
+     * 캐시에 있던 결과처럼 이미 완료된 결과는 바로 응답하고, 아니면 응답을 미뤄 두고 결과가 준비되면 보낸다.
+     */
+    private boolean replyWith(SlashCommandInteractionEvent event, CompletableFuture<List<MessageEmbed>> result,
+                              String taskName, Metrics.Histogram latency, long startNanos) {
+        if (result.isDone() && !result.isCompletedExceptionally()) {
+            List<MessageEmbed> pages = result.join();
+            event.replyEmbeds(pages.get(0)).setEphemeral(true)
+                    .queue(hook -> sendPages(hook, pages.subList(1, pages.size())));
+            return true;
         }
+        event.deferReply().setEphemeral(true).queue();
+        InteractionHook hook = event.getHook();
+        replyWhenDone(hook, result, pages -> sendPages(hook, pages), taskName, latency, startNanos);
+        return false;
     }
 
-    private void processDateCheck(SlashCommandInteractionEvent event, LocalDate dateToCheck) {
-        TextChannel channel = event.getChannel().asTextChannel();
-        List<Member> allMembers = channel.getGuild().loadMembers().get().stream()
-                .filter(m -> !m.getUser().isBot())
-                .collect(Collectors.toList());
-
-        OffsetDateTime startOfDay = dateToCheck.atStartOfDay(StudyBot.KST).toOffsetDateTime();
-        OffsetDateTime endOfDay = dateToCheck.atTime(LocalTime.MAX).atZone(StudyBot.KST).toOffsetDateTime();
-
-        Map<User, String> participants = channel.getHistory().retrievePast(StudyBot.MESSAGE_HISTORY_LIMIT).complete().stream()
-                .filter(m -> m.getAuthor().equals(event.getJDA().getSelfUser()) && !m.getEmbeds().isEmpty())
-                .filter(m -> {
-                    OffsetDateTime msgTime = m.getTimeCreated();
-                    return !msgTime.isBefore(startOfDay) && !msgTime.isAfter(endOfDay);
-                })
-                .map(m -> m.getEmbeds().get(0))
-                .filter(embed -> embed.getFooter() != null &&
-                        embed.getFooter().getText() != null &&
-                        embed.getFooter().getText().startsWith("참여자 ID:"))
-                .collect(Collectors.toMap(
-                        embed -> {
-                            String userId = embed.getFooter().getText().substring("참여자 ID: ".length());
-                            Member member = event.getGuild().getMemberById(userId);
-                            return member != null ? member.getUser() : null;
-                        },
-                        embed -> Optional.ofNullable(embed.getDescription()).orElse("내용 없음"),
-                        (existing, replacement) -> existing
-                ));
-
-        participants.remove(null);
-
-        List<Member> absentMembers = allMembers.stream()
-                .filter(member -> !participants.containsKey(member.getUser()))
+    /**
+     * 임베드 한 개에 담기지 않는 결과는 나머지 페이지를 후속 메시지로 순서대로 보낸다.
+     */
+    private void sendPages(InteractionHook hook, List<MessageEmbed> pages) {
+        List<WebhookMessageCreateAction<Message>> followups = pages.stream()
+                .map(page -> hook.sendMessageEmbeds(page).setEphemeral(true))
                 .collect(Collectors.toList());
-
-        EmbedBuilder eb = createDateCheckEmbed(dateToCheck, participants, absentMembers);
-        event.getHook().sendMessageEmbeds(eb.build()).queue();
-    }
-
-    private EmbedBuilder createDateCheckEmbed(LocalDate date, Map<User, String> participants, List<Member> absentMembers) {
-        EmbedBuilder eb = new EmbedBuilder()
-                .setTitle("🗓️ " + date.format(StudyBot.DATE_FORMATTER) + " 스터디 현황")
-                .setColor(new Color(0x5865F2));
-
-        if (participants.isEmpty()) {
-            eb.addField("✅ 참여한 멤버", "참여한 멤버가 없습니다.", false);
-        } else {
-            StringBuilder participantBuilder = new StringBuilder();
-            participants.forEach((user, content) -> {
-                String truncatedContent = content.length() > 50 ?
-                        content.substring(0, 50) + "..." : content;
-                participantBuilder.append(String.format("**%s**: %s\n", user.getName(), truncatedContent));
-            });
-            eb.addField("✅ 참여한 멤버 (" + participants.size() + "명)",
-                    participantBuilder.toString(), false);
-        }
-
-        if (absentMembers.isEmpty()) {
-            eb.addField("❌ 미참여 멤버", "모든 멤버가 참여했습니다! 🎉", false);
-        } else {
-            String absentString = absentMembers.stream()
-                    .map(Member::getEffectiveName)
-                    .collect(Collectors.joining(", "));
-            eb.addField("❌ 미참여 멤버 (" + absentMembers.size() + "명)", absentString, false);
-        }
-
-        return eb;
+        outbound.submit("followup", hook.getInteraction().getIdLong(), followups).exceptionally(error -> {
+            System.err.println("❌ 결과 전송 중 오류: " + error.getMessage());
+            return null;
+        });
     }
 
-    private void calculateAndSendParticipationRate(SlashCommandInteractionEvent event) {
-        event.deferReply().setEphemeral(true).queue();
+    private <T> void replyWhenDone(InteractionHook hook, CompletableFuture<T> result, Consumer<T> send, String taskName,
+                                   Metrics.Histogram latency, long startNanos) {
+        result.whenComplete((value, error) -> {
+            latency.observeSince(startNanos);
+            if (error == null) {
+                send.accept(value);
+                return;
+            }
 
-        CompletableFuture.runAsync(() -> {
-            try {
-                processParticipationRate(event);
-            } catch (Exception e) {
-                System.err.println("❌ 참여도 계산 중 오류: " + e.getMessage());
-                e.printStackTrace();
-                event.getHook().sendMessage("⚠️ 현황을 불러오는 중 오류가 발생했습니다.").queue();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RejectedExecutionException) {
+                hook.sendMessage("⚠️ 요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.").queue();
+                return;
             }
+            System.err.println("❌ " + taskName + " 중 오류: " + cause.getMessage());
+            cause.printStackTrace();
+            hook.sendMessage("⚠️ 현황을 불러오는 중 오류가 발생했습니다.").queue();
         });
     }
 
-    private void processParticipationRate(SlashCommandInteractionEvent event) {
-        TextChannel channel = event.getChannel().asTextChannel();
-        List<Member> members = channel.getGuild().loadMembers().get().stream()
-                .filter(m -> !m.getUser().isBot())
-                .sorted(Comparator.comparing(Member::getEffectiveName))
-                .collect(Collectors.toList());
-
-        List<Message> historyMessages = new ArrayList<>();
-        MessageHistory history = channel.getHistory();
-        int pages = StudyBot.PARTICIPATION_HISTORY_LIMIT / 100;
-
-        for (int i = 0; i < pages; i++) {
-            List<Message> retrieved = history.retrievePast(100).complete();
-            historyMessages.addAll(retrieved);
-            if (retrieved.size() < 100) {
-                break;
+    private LocalDate parseDateOption(OptionMapping dateOption, LocalDate defaultDate) {
+        try {
+            if (dateOption == null) {
+                return defaultDate;
             }
+            return LocalDate.parse(dateOption.getAsString(), DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
         }
+    }
 
-        Map<String, Set<LocalDate>> participationDays = historyMessages.stream()
-                .filter(m -> m.getAuthor().equals(event.getJDA().getSelfUser()) && !m.getEmbeds().isEmpty())
-                .map(m -> m.getEmbeds().get(0))
-                .filter(embed -> embed.getFooter() != null &&
-                        embed.getFooter().getText() != null &&
-                        embed.getFooter().getText().startsWith("참여자 ID:"))
-                .collect(Collectors.groupingBy(
-                        embed -> embed.getFooter().getText().substring("참여자 ID: ".length()),
-                        Collectors.mapping(embed -> embed.getTimestamp().atZoneSameInstant(StudyBot.KST).toLocalDate(),
-                                Collectors.toSet())
-                ));
+    private boolean searchRecords(SlashCommandInteractionEvent event, StudyChannel studyChannel, long startNanos) {
+        String text = event.getOption("검색어").getAsString().trim();
+        if (SearchIndex.tokens(SearchIndex.normalize(text)).isEmpty()) {
+            event.reply("⚠️ 글자나 숫자가 포함된 검색어를 입력해주세요.").setEphemeral(true).queue();
+            return true;
+        }
 
-        EmbedBuilder eb = new EmbedBuilder()
-                .setTitle("🏆 멤버별 스터디 참여율")
-                .setColor(new Color(70, 130, 180))
-                .setDescription("각 멤버가 서버에 참여한 날로부터의 참여율입니다.");
+        OptionMapping fromOption = event.getOption("시작");
+        OptionMapping toOption = event.getOption("끝");
+        LocalDate from = parseDateOption(fromOption, null);
+        LocalDate to = parseDateOption(toOption, null);
+        if ((fromOption != null && from == null) || (toOption != null && to == null)) {
+            event.reply("⚠️ 날짜 형식이 올바르지 않습니다. `YYYY-MM-DD` 형식으로 입력해주세요.").setEphemeral(true).queue();
+            return true;
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            event.reply("⚠️ 시작 날짜가 끝 날짜보다 늦습니다.").setEphemeral(true).queue();
+            return true;
+        }
 
-        for (Member member : members) {
-            User user = member.getUser();
-            LocalDate joinDate = member.getTimeJoined().atZoneSameInstant(StudyBot.KST).toLocalDate();
-            long daysSinceJoined = Duration.between(joinDate.atStartOfDay(),
-                    LocalDate.now(StudyBot.KST).atStartOfDay()).toDays() + 1;
+        OptionMapping memberOption = event.getOption("멤버");
+        long userId = memberOption == null ? 0 : memberOption.getAsUser().getIdLong();
+        return replyWith(event, service.search(studyChannel, text, from, to, userId), "검색", SEARCH_LATENCY, startNanos);
+    }
 
-            Set<LocalDate> participatedSet = participationDays.getOrDefault(user.getId(), Set.of());
-            int participationCount = participatedSet.size();
+    /**
+     * 시작 날짜를 지정하면 그 날부터 끝 날짜(기본 오늘)까지를, 아니면 고른 기간(기본 이번 주)의 리포트를 보낸다.
+     * 끝 날짜만 지정하면 어느 기간인지 알 수 없으므로 거절하고, 오늘보다 뒤의 끝 날짜는 오늘로 맞춘다.
+     */
+    private boolean sendReport(SlashCommandInteractionEvent event, StudyChannel studyChannel, long startNanos) {
+        LocalDate today = LocalDate.now(studyChannel.zone());
+        OptionMapping periodOption = event.getOption("기간");
+        ParticipationReport.Period period = periodOption == null ? ParticipationReport.Period.THIS_WEEK
+                : ParticipationReport.Period.valueOf(periodOption.getAsString());
+
+        OptionMapping fromOption = event.getOption("시작");
+        OptionMapping toOption = event.getOption("끝");
+        if (fromOption == null && toOption != null) {
+            event.reply("⚠️ 끝 날짜를 지정하려면 시작 날짜도 함께 입력해주세요.").setEphemeral(true).queue();
+            return true;
+        }
+        LocalDate from = parseDateOption(fromOption, period.from(today));
+        LocalDate to = parseDateOption(toOption, fromOption == null ? period.to(today) : today);
+        if (from == null || to == null) {
+            event.reply("⚠️ 날짜 형식이 올바르지 않습니다. `YYYY-MM-DD` 형식으로 입력해주세요.").setEphemeral(true).queue();
+            return true;
+        }
+        if (from.isAfter(today)) {
+            event.reply("⚠️ 시작 날짜가 오늘보다 늦습니다.").setEphemeral(true).queue();
+            return true;
+        }
+        if (to.isAfter(today)) {
+            to = today;
+        }
+        if (from.isAfter(to)) {
+            event.reply("⚠️ 시작 날짜가 끝 날짜보다 늦습니다.").setEphemeral(true).queue();
+            return true;
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > ParticipationReport.MAX_DAYS) {
+            event.reply("⚠️ 리포트 기간은 최대 " + ParticipationReport.MAX_DAYS + "일까지 지정할 수 있습니다.")
+                    .setEphemeral(true).queue();
+            return true;
+        }
 
-            double rate = (daysSinceJoined > 0) ? ((double) participationCount / daysSinceJoined) * 100 : 0;
+        String title = fromOption == null && toOption == null ? period.label() + " 스터디 리포트" : "스터디 리포트";
+        return replyWith(event, service.report(studyChannel, title, from, to), "리포트", REPORT_LATENCY, startNanos);
+    }
 
-            String fieldName = String.format("%s (%.1f%%)", member.getEffectiveName(), rate);
-            String fieldValue = String.format("참여: %d일 / 전체: %d일", participationCount, daysSinceJoined);
-            eb.addField(fieldName, fieldValue, true);
+    /**
+     * 참여율 스냅샷의 첫 페이지를 버튼과 함께 보낸다. 스냅샷은 이 명령어 상호작용 ID로 보관해 두고 버튼에서 다시 꺼낸다.
+     */
+    private boolean calculateAndSendParticipationRate(SlashCommandInteractionEvent event, StudyChannel studyChannel, long startNanos) {
+        LocalDate today = LocalDate.now(studyChannel.zone());
+        CompletableFuture<ParticipationView> result = service.participation(studyChannel, today);
+        long viewId = event.getIdLong();
+        ParticipationView.Sort sort = ParticipationView.Sort.RATE;
+        if (result.isDone() && !result.isCompletedExceptionally()) {
+            ParticipationView view = result.join();
+            participationViews.put(viewId, view);
+            event.replyEmbeds(view.render(sort, 0))
+                    .setComponents(view.components(viewId, sort, 0))
+                    .setEphemeral(true)
+                    .queue();
+            return true;
         }
-
-        event.getHook().sendMessageEmbeds(eb.build()).queue();
+        event.deferReply().setEphemeral(true).queue();
+        InteractionHook hook = event.getHook();
+        replyWhenDone(hook, result, view -> {
+            participationViews.put(viewId, view);
+            hook.sendMessageEmbeds(view.render(sort, 0))
+                    .setComponents(view.components(viewId, sort, 0))
+                    .setEphemeral(true)
+                    .queue();
+        }, "참여도 계산", PARTICIPATION_LATENCY, startNanos);
+        return false;
     }
 }
@@ -0,0 +1,48 @@
+package com.studybot;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 봇 로직이 디스코드에 접근하는 통로. 채널 기록 조회, 멤버 명단, 메시지 전송만 노출한다.
+ * 실제 봇은 JdaGateway를, 부하 테스트는 디스코드 없이 동작하는 가짜 구현을 쓴다.
+ * 조회 메서드는 응답이 올 때까지 기다리므로 명령어 실행기나 작업자 스레드에서만 호출해야 한다.
+ */
+public interface StudyGateway {
+
+    /**
+     * 채널 기록 한 페이지. records는 오래된 순서이며, 봇이 남긴 기록 메시지만 담는다.
+     * messageCount와 메시지 ID 범위는 기록이 아닌 메시지까지 포함한 값이다.
+     */
+    record HistoryPage(List<StudyRecord> records, int messageCount, long oldestMessageId, long newestMessageId) {
+        public boolean isEmpty() {
+            return messageCount == 0;
+        }
+    }
+
+    /** 기록 임베드에 표시할 작성자 */
+    record Author(long userId, String name, String avatarUrl) {
+    }
+
+    /** afterId보다 뒤의 메시지를 오래된 쪽부터 최대 limit개 읽는다. */
+    HistoryPage historyAfter(long channelId, long afterId, int limit);
+
+    /** beforeId보다 앞의 메시지를 최신 쪽부터 최대 limit개 읽는다. */
+    HistoryPage historyBefore(long channelId, long beforeId, int limit);
+
+    /**
+     * afterId보다 뒤에 봇이 보낸 일반(임베드가 없는) 메시지의 내용을 오래된 순서로 돌려준다.
+     * 최대 maxMessages개의 메시지까지만 훑는다. 자정 작업이 이미 알림을 보냈는지 확인할 때 쓴다.
+     */
+    List<String> ownMessagesAfter(long channelId, long afterId, int maxMessages);
+
+    /** 봇을 제외한 서버 멤버 전체 */
+    List<RosterMember> loadMembers(long guildId);
+
+    /** 기록 임베드를 채널에 올리고, 올라간 메시지로 만든 기록으로 완료된다. */
+    CompletableFuture<StudyRecord> postRecord(long channelId, Author author, String content, Instant createdAt);
+
+    /** 사용자 멘션을 허용한 일반 메시지들을 순서대로 보낸다. route는 지표 라벨이다. */
+    CompletableFuture<Void> sendMessages(String route, long channelId, List<String> contents);
+}
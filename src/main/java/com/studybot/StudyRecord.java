@@ -0,0 +1,56 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.entities.User;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * 봇이 채널에 게시한 스터디 기록 한 건.
+ * 기록 임베드의 "참여자 ID:" 푸터에서 추출하거나, 모달 제출 직후 게시된 메시지로부터 만든다.
+ */
+public record StudyRecord(long messageId, long userId, long timestamp, String content) {
+
+    public static final String FOOTER_PREFIX = "참여자 ID: ";
+
+    /** 채널 시간대 기준으로 기록한 날짜 */
+    public LocalDate date(ZoneId zone) {
+        return Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+    }
+
+    public static Optional<StudyRecord> fromMessage(Message message, User selfUser) {
+        if (!message.getAuthor().equals(selfUser) || message.getEmbeds().isEmpty()) {
+            return Optional.empty();
+        }
+
+        MessageEmbed embed = message.getEmbeds().get(0);
+        if (embed.getFooter() == null) {
+            return Optional.empty();
+        }
+
+        OptionalLong userId = parseUserId(embed.getFooter().getText());
+        if (userId.isEmpty()) {
+            return Optional.empty();
+        }
+        String content = Optional.ofNullable(embed.getDescription()).orElse("내용 없음");
+        return Optional.of(new StudyRecord(message.getIdLong(), userId.getAsLong(),
+                message.getTimeCreated().toInstant().toEpochMilli(), content));
+    }
+
+    /** 기록 임베드 푸터("참여자 ID: 1234")에서 사용자 ID를 꺼낸다. 기록 푸터가 아니면 비어 있다. */
+    public static OptionalLong parseUserId(String footerText) {
+        if (footerText == null || !footerText.startsWith("참여자 ID:")) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(footerText.substring(FOOTER_PREFIX.length()).trim()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.studybot;
+
+import com.studybot.ChannelRegistry.StudyChannel;
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * 명령어와 자정 작업의 실제 처리. 디스코드 접근은 모두 StudyGateway를 거치므로 JDA 이벤트 없이도 호출할 수 있다.
+ * /확인 과 /참여도 결과는 캐시와 명령어 실행기를 거쳐 돌려준다.
+ */
+public class StudyService {
+    private final ChannelStores stores;
+    private final RosterCache roster;
+    private final CommandExecutor commandExecutor;
+    private final ResultCache<List<MessageEmbed>> resultCache;
+    // /참여도는 임베드 대신 페이지를 넘길 수 있는 스냅샷을 캐시한다.
+    private final ResultCache<ParticipationView> participationViews = new ResultCache<>("참여도", StudyBot.RESULT_CACHE_SIZE);
+    // /리포트는 제목이 요청마다 다르므로 임베드 대신 리포트를 캐시하고 임베드는 요청마다 만든다.
+    private final ResultCache<ParticipationReport> reports = new ResultCache<>("리포트", StudyBot.RESULT_CACHE_SIZE);
+    private final StudyGateway gateway;
+
+    public StudyService(ChannelRegistry channels, ChannelStores stores, RosterCache roster, CommandExecutor commandExecutor,
+                        ResultCache<List<MessageEmbed>> resultCache, StudyGateway gateway) {
+        this.stores = stores;
+        this.roster = roster;
+        this.commandExecutor = commandExecutor;
+        this.resultCache = resultCache;
+        this.gateway = gateway;
+
+        // 새 기록은 그 채널의 해당 날짜 /확인 결과와 /참여도 결과만, 명단 변경은 그 서버 채널들의 결과를 무효화한다.
+        stores.addChangeListener((channelId, dates) -> {
+            resultCache.invalidateIf(channelId, key -> dates.stream().anyMatch(date -> key.equals("확인:" + channelId + ":" + date)));
+            participationViews.invalidateIf(channelId, key -> key.startsWith("참여도:" + channelId + ":"));
+            reports.invalidateIf(channelId, key -> key.startsWith("리포트:" + channelId + ":"));
+        });
+        roster.addChangeListener(guildId -> {
+            for (StudyChannel channel : channels.inGuild(guildId)) {
+                long channelId = channel.channelId();
+                Set<String> prefixes = Set.of("확인:" + channelId + ":", "참여도:" + channelId + ":", "리포트:" + channelId + ":");
+                resultCache.invalidateIf(channelId, key -> prefixes.stream().anyMatch(key::startsWith));
+                participationViews.invalidateIf(channelId, key -> prefixes.stream().anyMatch(key::startsWith));
+                reports.invalidateIf(channelId, key -> prefixes.stream().anyMatch(key::startsWith));
+            }
+        });
+    }
+
+    /**
+     * 서버 명단을 불러오고, 저장소가 비었으면 채널 기록을 거슬러 채우고 아니면 마지막 기록 이후만 보충한다.
+     */
+    public void synchronize(StudyChannel studyChannel) {
+        if (!roster.isLoaded(studyChannel.guildId())) {
+            roster.load(studyChannel.guildId(), gateway);
+        }
+
+        try (ChannelStores.Lease lease = stores.acquire(studyChannel)) {
+            ParticipationStore store = lease.store();
+            if (!store.hasFullHistory()) {
+                importHistoryFile(studyChannel, store);
+            }
+            if (store.needsBackfill()) {
+                System.out.println("📥 저장된 참여 기록이 없어 채널 기록을 불러옵니다: " + studyChannel.channelId());
+                HistoryRangeQuery.Backfill backfill = HistoryRangeQuery.fetchLatest(gateway, studyChannel.channelId(),
+                        StudyBot.PARTICIPATION_HISTORY_LIMIT, store.zone());
+                int added = store.backfill(backfill.records(), backfill.coveredSince());
+                System.out.println("✅ 참여 기록 " + added + "건을 저장했습니다: " + studyChannel.channelId());
+            } else {
+                // 마지막으로 저장한 기록 이후의 메시지만 읽어, 로그에 남기지 못한 기록을 보충한다.
+                List<StudyRecord> missed = HistoryRangeQuery.fetchAfter(gateway, studyChannel.channelId(), store.getLastMessageId());
+                int added = store.addAll(missed);
+                if (added > 0) {
+                    System.out.println("✅ 누락된 참여 기록 " + added + "건을 보충했습니다: " + studyChannel.channelId());
+                }
+            }
+        }
+    }
+
+    /**
+     * HistoryExportTool로 내보낸 전체 기록 파일이 있으면 한 번에 mmap해서 반영한다.
+     * 파일이 끝난 뒤부터 저장소가 빠짐없이 가진 날짜 전까지 빈 구간이 있으면 그 구간만 채널에서 읽어 함께 반영하므로,
+     * 반영하고 나면 처음부터 빠짐없는 기록이 되어 다음 시작부터는 파일을 다시 읽지 않는다.
+     * 저장소보다 새 기록은 뒤이어 fetchAfter로 보충한다.
+     */
+    private void importHistoryFile(StudyChannel studyChannel, ParticipationStore store) {
+        Path file = stores.historyFile(studyChannel.channelId());
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (HistoryFile history = HistoryFile.open(file)) {
+            List<StudyRecord> records = history.records();
+            // 파일이 끝나는 날짜까지 저장소가 이미 반영하고 있으면 사이에 빠진 기록이 없다.
+            LocalDate exportedUntil = HistoryRangeQuery.toInstant(history.lastMessageId()).atZone(store.zone()).toLocalDate();
+            if (!store.needsBackfill() && !store.isCovered(exportedUntil)) {
+                LocalDate coveredSince = store.coveredSince();
+                long untilId = coveredSince.equals(LocalDate.MAX)
+                        ? Long.MAX_VALUE
+                        : HistoryRangeQuery.startOfDay(coveredSince, store.zone()) - 1;
+                List<StudyRecord> gap = HistoryRangeQuery.fetchRange(gateway, studyChannel.channelId(),
+                        history.lastMessageId(), untilId);
+                System.out.println("📂 기록 파일 이후의 빈 구간에서 참여 기록 " + gap.size() + "건을 읽었습니다: "
+                        + studyChannel.channelId());
+                records.addAll(gap);
+            }
+            int added = store.backfill(records, LocalDate.MIN);
+            System.out.println("📂 내보낸 기록 파일에서 참여 기록 " + added + "건을 불러왔습니다: " + studyChannel.channelId());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ 기록 파일을 읽지 못했습니다 (" + file + "): " + e.getMessage());
+        }
+    }
+
+    /** 기록 임베드를 올리고, 올라간 기록을 저장소에 반영한다. */
+    public CompletableFuture<StudyRecord> record(StudyChannel studyChannel, StudyGateway.Author author, String content,
+                                                 Instant createdAt) {
+        return gateway.postRecord(studyChannel.channelId(), author, content, createdAt)
+                .thenApply(record -> {
+                    try (ChannelStores.Lease lease = stores.acquire(studyChannel)) {
+                        lease.store().add(record);
+                    }
+                    return record;
+                });
+    }
+
+    /**
+     * 특정 날짜의 참여 현황. 캐시에 있으면 이미 완료된 future를 돌려준다.
+     * 같은 날짜를 동시에 조회하면 한 번만 계산하고 결과를 함께 받는다.
+     */
+    public CompletableFuture<List<MessageEmbed>> checkDate(StudyChannel studyChannel, LocalDate date) {
+        String key = "확인:" + studyChannel.channelId() + ":" + date;
+        List<MessageEmbed> cached = resultCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long token = resultCache.token(studyChannel.channelId());
+        return commandExecutor.submit("확인", key, token,
+                () -> cache(key, studyChannel, token, processDateCheck(studyChannel, date)));
+    }
+
+    /**
+     * 멤버별 누적 참여율 스냅샷. 참여율은 오늘 날짜에 따라 달라지므로 날짜를 캐시 키에 포함한다.
+     * 페이지 넘기기와 정렬 변경은 돌려받은 스냅샷에서 바로 그리므로 다시 계산하지 않는다.
+     */
+    public CompletableFuture<ParticipationView> participation(StudyChannel studyChannel, LocalDate today) {
+        String key = "참여도:" + studyChannel.channelId() + ":" + today;
+        ParticipationView cached = participationViews.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long token = participationViews.token(studyChannel.channelId());
+        return commandExecutor.submit("참여도", key, token, () -> {
+            try (ChannelStores.Lease lease = stores.acquire(studyChannel)) {
+                ParticipationView view = ParticipationView.create(roster.get(studyChannel.guildId()).members(),
+                        lease.store(), today);
+                participationViews.put(key, view, studyChannel.channelId(), token);
+                return view;
+            }
+        });
+    }
+
+    /**
+     * from부터 to까지(양끝 포함)의 참여 리포트. 저장소가 갖고 있지 않은 날짜는 비교할 이전 기간까지 포함해 한 번에 조회한다.
+     */
+    public CompletableFuture<List<MessageEmbed>> report(StudyChannel studyChannel, String title, LocalDate from, LocalDate to) {
+        String key = "리포트:" + studyChannel.channelId() + ":" + from + ":" + to;
+        ParticipationReport cached = reports.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(List.of(cached.toEmbed(title)));
+        }
+        long token = reports.token(studyChannel.channelId());
+        return commandExecutor.submit("리포트", key, token, () -> {
+            ParticipationReport report = createReport(studyChannel, from, to);
+            reports.put(key, report, studyChannel.channelId(), token);
+            return report;
+        }).thenApply(report -> List.of(report.toEmbed(title)));
+    }
+
+    /**
+     * 자정 작업: 일요일이 끝나면 그 주(월~일)의 요약을 채널에 올린다. 다른 요일에는 아무것도 하지 않는다.
+     */
+    public void postWeeklyReport(StudyChannel studyChannel, LocalDate date) {
+        if (date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+            return;
+        }
+        ParticipationReport report = createReport(studyChannel, date.minusDays(6), date);
+        String summary = report.toSummary("주간 스터디 리포트");
+        if (alreadyPosted(studyChannel, date, summary.substring(0, summary.indexOf('\n')))) {
+            return;
+        }
+        gateway.sendMessages("report", studyChannel.channelId(), List.of(summary)).join();
+    }
+
+    /**
+     * 자정 작업이 date에 대한 알림을 이미 보냈는지 다음 날 0시 이후의 채널 기록에서 확인한다.
+     * 스케줄러 상태를 잃고 같은 날짜를 다시 실행할 때 같은 메시지를 두 번 보내지 않기 위해 쓴다.
+     */
+    private boolean alreadyPosted(StudyChannel studyChannel, LocalDate date, String header) {
+        long afterId = HistoryRangeQuery.startOfDay(date.plusDays(1), studyChannel.zone()) - 1;
+        return gateway.ownMessagesAfter(studyChannel.channelId(), afterId, StudyBot.POSTED_CHECK_MESSAGES).stream()
+                .anyMatch(content -> content.startsWith(header));
+    }
+
+    private ParticipationReport createReport(StudyChannel studyChannel, LocalDate from, LocalDate to) {
+        try (ChannelStores.Lease lease = stores.acquire(studyChannel)) {
+            ParticipationStore store = lease.store();
+            long days = ChronoUnit.DAYS.between(from, to) + 1;
+            HistoryRangeQuery.fillRangeIfMissing(store, gateway, studyChannel.channelId(), from.minusDays(days), to);
+            return ParticipationReport.create(roster.get(studyChannel.guildId()).members(), store, from, to);
+        }
+    }
+
+    /**
+     * 기록 내용 검색. from, to가 null이면 그쪽으로는 기간을 제한하지 않고, userId가 0이면 모든 멤버를 본다.
+     * 저장소의 색인만 읽고 채널 기록은 조회하지 않는다.
+     */
+    public CompletableFuture<List<MessageEmbed>> search(StudyChannel studyChannel, String text, LocalDate from, LocalDate to,
+                                                        long userId) {
+        String key = "검색:" + studyChannel.channelId() + ":" + from + ":" + to + ":" + userId + ":" + text;
+        // 결과는 캐시하지 않지만, 기록이 추가되기 전에 시작된 검색에는 합류하지 않도록 토큰을 함께 넘긴다.
+        return commandExecutor.submit("검색", key, resultCache.token(studyChannel.channelId()), () -> {
+            SearchIndex.Result result;
+            try (ChannelStores.Lease lease = stores.acquire(studyChannel)) {
+                result = lease.store().search(text, from, to, userId, StudyBot.SEARCH_RESULT_LIMIT);
+            }
+            return List.of(createSearchEmbed(text, from, to, roster.get(studyChannel.guildId()), userId, result,
+                    studyChannel.zone()));
+        });
+    }
+
+    private List<MessageEmbed> cache(String key, StudyChannel studyChannel, long token, List<MessageEmbed> pages) {
+        resultCache.put(key, pages, studyChannel.channelId(), token);
+        return pages;
+    }
+
+    /**
+     * 자정 작업: 지정한 날짜에 기록하지 않은 멤버를 멘션한다. 모든 메시지가 전송된 뒤에 돌아온다.
+     */
+    public void checkAbsence(StudyChannel studyChannel, LocalDate dateToCheck) {
+        List<RosterMember> allMembers = roster.get(studyChannel.guildId()).members();
+        Set<Long> participantIds;
+        try (ChannelStores.Lease lease = stores.acquire(studyChannel)) {
+            HistoryRangeQuery.fillIfMissing(lease.store(), gateway, studyChannel.channelId(), dateToCheck);
+            participantIds = lease.store().getParticipantIds(dateToCheck);
+        }
+
+        List<RosterMember> absentMembers = allMembers.stream()
+                .filter(member -> !participantIds.contains(member.userId()))
+                .collect(Collectors.toList());
+        if (absentMembers.isEmpty()) {
+            return;
+        }
+
+        // 이미 보낸 알림을 찾을 수 있도록 제목에는 항상 날짜를 넣고, 어제 날짜일 때만 독려 문구를 붙인다.
+        String title = "🔔 **" + dateToCheck.format(StudyBot.DATE_FORMATTER) + " 스터디 기록이 없는 멤버입니다.**";
+        if (alreadyPosted(studyChannel, dateToCheck, title)) {
+            return;
+        }
+        String header = dateToCheck.equals(LocalDate.now(studyChannel.zone()).minusDays(1))
+                ? title + " 오늘 꼭 기록해주세요!\n"
+                : title + "\n";
+        List<String> mentions = absentMembers.stream().map(RosterMember::mention).collect(Collectors.toList());
+
+        // 멘션이 많으면 2,000자 제한에 맞춰 여러 메시지로 나눈다.
+        gateway.sendMessages("absence", studyChannel.channelId(), OutboundPipeline.splitMessage(header, mentions, " ")).join();
+    }
+
+    private List<MessageEmbed> processDateCheck(StudyChannel studyChannel, LocalDate dateToCheck) {
+        RosterCache.Roster members = roster.get(studyChannel.guildId());
+        Map<Long, StudyRecord> records;
+        try (ChannelStores.Lease lease = stores.acquire(studyChannel)) {
+            HistoryRangeQuery.fillIfMissing(lease.store(), gateway, studyChannel.channelId(), dateToCheck);
+            records = lease.store().getRecords(dateToCheck);
+        }
+
+        Map<RosterMember, String> participants = matchParticipants(members, records);
+        List<RosterMember> absentMembers = members.members().stream()
+                .filter(member -> !participants.containsKey(member))
+                .collect(Collectors.toList());
+
+        return createDateCheckEmbeds(dateToCheck, participants, absentMembers);
+    }
+
+    /** 그날의 기록을 현재 명단의 멤버와 짝짓는다. 서버를 떠난 멤버의 기록은 제외된다. */
+    static Map<RosterMember, String> matchParticipants(RosterCache.Roster members, Map<Long, StudyRecord> records) {
+        Map<RosterMember, String> participants = new LinkedHashMap<>();
+        records.forEach((userId, record) -> {
+            RosterMember member = members.get(userId);
+            if (member != null) {
+                participants.put(member, record.content());
+            }
+        });
+        return participants;
+    }
+
+    static List<MessageEmbed> createDateCheckEmbeds(LocalDate date, Map<RosterMember, String> participants, List<RosterMember> absentMembers) {
+        List<MessageEmbed.Field> fields = new ArrayList<>();
+
+        if (participants.isEmpty()) {
+            fields.add(new MessageEmbed.Field("✅ 참여한 멤버", "참여한 멤버가 없습니다.", false));
+        } else {
+            List<String> participantLines = new ArrayList<>(participants.size());
+            participants.forEach((member, content) -> {
+                String truncatedContent = content.length() > 50 ?
+                        content.substring(0, 50) + "..." : content;
+                participantLines.add(String.format("**%s**: %s", member.userName(), truncatedContent));
+            });
+            // 인원이 많으면 필드 하나의 1,024자 제한을 넘으므로 여러 필드로 나눈다.
+            fields.addAll(OutboundPipeline.splitField("✅ 참여한 멤버 (" + participants.size() + "명)",
+                    participantLines, "\n", false));
+        }
+
+        if (absentMembers.isEmpty()) {
+            fields.add(new MessageEmbed.Field("❌ 미참여 멤버", "모든 멤버가 참여했습니다! 🎉", false));
+        } else {
+            List<String> absentNames = absentMembers.stream()
+                    .map(RosterMember::effectiveName)
+                    .collect(Collectors.toList());
+            fields.addAll(OutboundPipeline.splitField("❌ 미참여 멤버 (" + absentMembers.size() + "명)",
+                    absentNames, ", ", false));
+        }
+
+        return OutboundPipeline.paginate(() -> new EmbedBuilder()
+                .setTitle("🗓️ " + date.format(StudyBot.DATE_FORMATTER) + " 스터디 현황")
+                .setColor(new Color(0x5865F2)), fields);
+    }
+
+    static MessageEmbed createSearchEmbed(String text, LocalDate from, LocalDate to, RosterCache.Roster members, long userId,
+                                          SearchIndex.Result result, ZoneId zone) {
+        List<String> conditions = new ArrayList<>();
+        if (from != null || to != null) {
+            conditions.add("기간: " + (from == null ? "처음" : from.format(StudyBot.DATE_FORMATTER))
+                    + " ~ " + (to == null ? "오늘" : to.format(StudyBot.DATE_FORMATTER)));
+        }
+        if (userId != 0) {
+            conditions.add("멤버: " + memberName(members, userId));
+        }
+
+        // 명령어 옵션이 길이를 제한하지만, 다른 경로로 들어온 검색어도 제목 256자 제한을 넘지 않게 자른다.
+        String shownText = text.length() > StudyBot.SEARCH_QUERY_MAX_LENGTH
+                ? text.substring(0, StudyBot.SEARCH_QUERY_MAX_LENGTH) + "..." : text;
+        EmbedBuilder eb = new EmbedBuilder()
+                .setTitle("🔎 '" + shownText + "' 검색 결과")
+                .setColor(new Color(0xFAA61A));
+        if (!conditions.isEmpty()) {
+            eb.setDescription(String.join(" · ", conditions));
+        }
+        if (result.hits().isEmpty()) {
+            eb.addField("결과 없음", "검색어가 포함된 기록이 없습니다.", false);
+            return eb.build();
+        }
+
+        List<String> tokens = SearchIndex.tokens(SearchIndex.normalize(text));
+        for (SearchIndex.Hit hit : result.hits()) {
+            StudyRecord record = hit.record();
+            eb.addField(memberName(members, record.userId()) + " · " + record.date(zone).format(StudyBot.DATE_FORMATTER),
+                    snippet(record.content(), tokens.get(0)), false);
+        }
+        return eb.setFooter("조건에 맞는 기록 " + result.total() + "건 중 상위 " + result.hits().size() + "건").build();
+    }
+
+    private static String memberName(RosterCache.Roster members, long userId) {
+        RosterMember member = members.get(userId);
+        return member != null ? member.effectiveName() : "(서버를 떠난 멤버)";
+    }
+
+    /** 첫 검색어가 나오는 위치 주변만 잘라 보여주고, 일치한 부분은 굵게 표시한다. */
+    static String snippet(String content, String token) {
+        String flat = content.replace('\n', ' ');
+        int at = SearchIndex.normalize(flat).indexOf(token);
+        if (at < 0) {
+            return flat.length() > 100 ? flat.substring(0, 100) + "..." : flat;
+        }
+        int start = Math.max(0, at - 40);
+        int end = Math.min(flat.length(), at + token.length() + 60);
+        return (start > 0 ? "..." : "") + flat.substring(start, at)
+                + "**" + flat.substring(at, at + token.length()) + "**"
+                + flat.substring(at + token.length(), end) + (end < flat.length() ? "..." : "");
+    }
+}
@@ -0,0 +1,55 @@
+package com.studybot;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 버튼으로 넘겨 볼 결과 스냅샷을 명령어 상호작용 ID별로 잠시 보관한다.
+ * 만료 시간이 지나거나 개수 제한을 넘으면 오래된 것부터 버린다. 넣은 순서가 곧 만료 순서다.
+ */
+public class ViewCache<V> {
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+
+    private final Map<Long, Entry<V>> entries = new LinkedHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public ViewCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public synchronized void put(long viewId, V value) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        entries.put(viewId, new Entry<>(value, now + ttlNanos));
+        if (entries.size() > maxEntries) {
+            Iterator<Long> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /** 만료되었거나 없으면 null */
+    public synchronized V get(long viewId) {
+        Entry<V> entry = entries.get(viewId);
+        if (entry == null || entry.expiresAtNanos() - System.nanoTime() < 0) {
+            return null;
+        }
+        return entry.value();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAtNanos() - now < 0) {
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.studybot;
+
+import com.studybot.ChannelRegistry.StudyChannel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 채널 등록, 설정 변경, 해제 때 리스너에 넘기는 값과 서버별 목록.
+ */
+class ChannelRegistryTest {
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    @TempDir
+    Path dir;
+
+    private ChannelRegistry registry() throws IOException {
+        return new ChannelRegistry(dir.resolve("channels.properties"));
+    }
+
+    @Test
+    void notifiesRegisterWithPreviousSettings() throws IOException {
+        ChannelRegistry registry = registry();
+        List<List<StudyChannel>> events = new ArrayList<>();
+        registry.addRegisterListener((previous, channel) -> events.add(Arrays.asList(previous, channel)));
+
+        assertTrue(registry.register(1, 10, KST));
+        assertFalse(registry.register(1, 10, KST));
+        assertFalse(registry.register(1, 10, UTC));
+
+        StudyChannel first = new StudyChannel(1, 10, KST);
+        StudyChannel changed = new StudyChannel(1, 10, UTC);
+        assertEquals(List.of(Arrays.asList(null, first), List.of(first, changed)), events);
+    }
+
+    @Test
+    void notifiesUnregisterOnce() throws IOException {
+        ChannelRegistry registry = registry();
+        List<StudyChannel> removed = new ArrayList<>();
+        registry.addUnregisterListener(removed::add);
+        registry.register(1, 10, KST);
+
+        assertTrue(registry.unregister(10));
+        assertFalse(registry.unregister(10));
+
+        assertEquals(List.of(new StudyChannel(1, 10, KST)), removed);
+        assertNull(registry.get(10));
+    }
+
+    @Test
+    void tracksGuildsWithStudyChannels() throws IOException {
+        ChannelRegistry registry = registry();
+        registry.register(1, 10, KST);
+        registry.register(1, 11, KST);
+        registry.register(2, 20, KST);
+
+        registry.unregister(10);
+        assertTrue(registry.hasGuild(1));
+        assertEquals(List.of(new StudyChannel(1, 11, KST)), registry.inGuild(1));
+
+        registry.unregister(11);
+        assertFalse(registry.hasGuild(1));
+        assertEquals(List.of(), registry.inGuild(1));
+        assertTrue(registry.hasGuild(2));
+    }
+
+    @Test
+    void reloadsSavedChannels() throws IOException {
+        ChannelRegistry registry = registry();
+        registry.register(1, 10, UTC);
+        registry.register(2, 20, KST);
+        registry.unregister(20);
+
+        ChannelRegistry reloaded = registry();
+
+        assertEquals(List.of(new StudyChannel(1, 10, UTC)), List.copyOf(reloaded.all()));
+        assertTrue(reloaded.hasGuild(1));
+        assertFalse(reloaded.hasGuild(2));
+    }
+}
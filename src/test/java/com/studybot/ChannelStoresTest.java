@@ -0,0 +1,61 @@
+package com.studybot;
+
+import com.studybot.ChannelRegistry.StudyChannel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 빌려 간 저장소가 있는 채널을 닫고 다시 열 때의 순서.
+ */
+class ChannelStoresTest {
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final ZoneId UTC = ZoneId.of("UTC");
+    private static final StudyChannel CHANNEL = new StudyChannel(1, 10, KST);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sharesOpenStore() {
+        try (ChannelStores stores = new ChannelStores(dir);
+             ChannelStores.Lease first = stores.acquire(CHANNEL);
+             ChannelStores.Lease second = stores.acquire(CHANNEL)) {
+            assertSame(first.store(), second.store());
+        }
+    }
+
+    @Test
+    void reopenWaitsUntilLeaseIsReturned() throws Exception {
+        long timestamp = LocalDate.of(2026, 3, 9).atTime(21, 0).atZone(KST).toInstant().toEpochMilli();
+        try (ChannelStores stores = new ChannelStores(dir)) {
+            ChannelStores.Lease lease = stores.acquire(CHANNEL);
+            lease.store().add(new StudyRecord(100, 5, timestamp, "스프링"));
+            ParticipationStore closed = lease.store();
+
+            stores.close(CHANNEL.channelId());
+            StudyChannel changed = new StudyChannel(1, 10, UTC);
+            CompletableFuture<ChannelStores.Lease> reopened = CompletableFuture.supplyAsync(() -> stores.acquire(changed));
+
+            assertThrows(TimeoutException.class, () -> reopened.get(200, TimeUnit.MILLISECONDS));
+            lease.close();
+
+            try (ChannelStores.Lease next = reopened.get(5, TimeUnit.SECONDS)) {
+                assertNotSame(closed, next.store());
+                assertEquals(UTC, next.store().zone());
+                assertEquals(1, next.store().countDays(5, LocalDate.of(2026, 3, 9), LocalDate.of(2026, 3, 9)));
+            }
+        }
+    }
+}
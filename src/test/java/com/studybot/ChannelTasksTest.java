@@ -0,0 +1,82 @@
+package com.studybot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 채널 준비가 끝나기 전에 들어온 해제가 먼저 실행되지 않는지.
+ */
+class ChannelTasksTest {
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+    private final ChannelTasks tasks = new ChannelTasks(workers);
+
+    @AfterEach
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void runsSameChannelInOrder() throws Exception {
+        CountDownLatch syncing = new CountDownLatch(1);
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<Void> activate = tasks.run(1, () -> {
+            await(syncing);
+            events.add("activate");
+        });
+        CompletableFuture<Void> deactivate = tasks.run(1, () -> events.add("deactivate"));
+
+        assertThrows(TimeoutException.class, () -> deactivate.get(100, TimeUnit.MILLISECONDS));
+        syncing.countDown();
+        CompletableFuture.allOf(activate, deactivate).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("activate", "deactivate"), events);
+    }
+
+    @Test
+    void otherChannelsDoNotWait() throws Exception {
+        CountDownLatch syncing = new CountDownLatch(1);
+        CompletableFuture<Void> slow = tasks.run(1, () -> await(syncing));
+
+        tasks.run(2, () -> {
+        }).get(5, TimeUnit.SECONDS);
+
+        assertFalse(slow.isDone());
+        syncing.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void failureDoesNotBlockNextTask() throws Exception {
+        CompletableFuture<Void> failed = tasks.run(1, () -> {
+            throw new IllegalStateException("동기화 실패");
+        });
+        CompletableFuture<Void> next = tasks.run(1, () -> {
+        });
+
+        next.get(5, TimeUnit.SECONDS);
+        assertThrows(ExecutionException.class, failed::get);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
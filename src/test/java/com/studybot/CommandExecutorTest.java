@@ -0,0 +1,162 @@
+package com.studybot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 같은 키 작업 합치기와 명령어별 동시 실행 한도.
+ */
+class CommandExecutorTest {
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+    private CommandExecutor executor;
+
+    @AfterEach
+    void close() {
+        gate.countDown();
+        executor.close();
+    }
+
+    /** gate가 열릴 때까지 붙잡혀 있는 작업. 동시에 실행된 최대 개수를 센다. */
+    private Supplier<String> blocking(String result) {
+        return () -> {
+            calls.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return result;
+        };
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    void coalescesSameKeyWhileInFlight() throws Exception {
+        executor = new CommandExecutor(4, 8, Map.of(), 2);
+
+        CompletableFuture<String> first = executor.submit("확인", "2026-03-09", blocking("a"));
+        CompletableFuture<String> second = executor.submit("확인", "2026-03-09", blocking("b"));
+        gate.countDown();
+
+        assertSame(first, second);
+        assertEquals("a", first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+
+        // 끝난 뒤에는 다시 계산한다.
+        assertEquals("c", executor.submit("확인", "2026-03-09", () -> "c").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void differentTokensDoNotCoalesce() throws Exception {
+        executor = new CommandExecutor(4, 8, Map.of(), 2);
+
+        CompletableFuture<String> stale = executor.submit("확인", "2026-03-09", 1, blocking("old"));
+        CompletableFuture<String> fresh = executor.submit("확인", "2026-03-09", 2, blocking("new"));
+        gate.countDown();
+
+        assertNotSame(stale, fresh);
+        assertEquals("old", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("new", fresh.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void overLimitTasksWaitInsteadOfFailing() throws Exception {
+        executor = new CommandExecutor(4, 8, Map.of("참여도", 1), 2);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(executor.submit("참여도", "channel-" + i, blocking("v" + i)));
+        }
+        Thread.sleep(100);
+        assertFalse(futures.stream().anyMatch(CompletableFuture::isCompletedExceptionally));
+        assertEquals(2, executor.queueSize());
+
+        gate.countDown();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("v" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, maxRunning.get());
+        assertEquals(0, executor.queueSize());
+    }
+
+    @Test
+    void limitIsPerCommand() throws Exception {
+        executor = new CommandExecutor(4, 8, Map.of("참여도", 1), 2);
+
+        CompletableFuture<String> slow = executor.submit("참여도", "channel-1", blocking("slow"));
+        assertEquals("hit", executor.submit("검색", "스프링", () -> "hit").get(5, TimeUnit.SECONDS));
+
+        assertFalse(slow.isDone());
+    }
+
+    @Test
+    void rejectsWhenWaitListIsFull() throws Exception {
+        executor = new CommandExecutor(4, 1, Map.of("참여도", 1), 2);
+
+        CompletableFuture<String> running = executor.submit("참여도", "channel-1", blocking("1"));
+        CompletableFuture<String> waiting = executor.submit("참여도", "channel-2", blocking("2"));
+        CompletableFuture<String> rejected = executor.submit("참여도", "channel-3", blocking("3"));
+
+        assertInstanceOf(RejectedExecutionException.class, failure(rejected));
+        gate.countDown();
+        assertEquals("1", running.get(5, TimeUnit.SECONDS));
+        assertEquals("2", waiting.get(5, TimeUnit.SECONDS));
+        // 거절된 키는 진행 중 목록에 남지 않는다.
+        assertEquals("3", executor.submit("참여도", "channel-3", () -> "3").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsWhenPoolQueueIsFull() throws Exception {
+        executor = new CommandExecutor(1, 1, Map.of(), 4);
+
+        CompletableFuture<String> running = executor.submit("확인", "a", blocking("a"));
+        Thread.sleep(100);
+        CompletableFuture<String> queued = executor.submit("확인", "b", () -> "b");
+        CompletableFuture<String> rejected = executor.submit("확인", "c", () -> "c");
+
+        assertInstanceOf(RejectedExecutionException.class, failure(rejected));
+        gate.countDown();
+        assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failedTaskReleasesItsSlot() throws Exception {
+        executor = new CommandExecutor(2, 8, Map.of("리포트", 1), 2);
+
+        CompletableFuture<String> failed = executor.submit("리포트", "a", () -> {
+            throw new IllegalStateException("집계 실패");
+        });
+
+        assertInstanceOf(IllegalStateException.class, failure(failed));
+        assertEquals("ok", executor.submit("리포트", "b", () -> "ok").get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,139 @@
+package com.studybot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 밀린 날짜 처리, 처리 일수 제한, 처음 등록할 때의 시작 날짜.
+ * 작업은 호출한 스레드에서 바로 실행하고, 타이머는 미리 종료해 다음 자정 예약은 하지 않는다.
+ */
+class DailySchedulerTest {
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+    private static final String JOB = "absence:1";
+
+    @TempDir
+    Path dir;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final List<LocalDate> runs = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private DailyScheduler scheduler(LocalDate today) throws IOException {
+        timer.shutdown();
+        Clock clock = Clock.fixed(ZonedDateTime.of(today.atTime(9, 0), KST).toInstant(), KST);
+        return new DailyScheduler(timer, Runnable::run, dir.resolve("scheduler.properties"), clock);
+    }
+
+    @Test
+    void newRegistrationWaitsForNextMidnight() throws IOException {
+        DailyScheduler scheduler = scheduler(TODAY);
+
+        scheduler.schedule(JOB, KST, TODAY.minusDays(1), runs::add);
+
+        assertEquals(List.of(), runs);
+        assertEquals(TODAY.minusDays(1), scheduler.getLastProcessed(JOB));
+    }
+
+    @Test
+    void lostStateReplaysYesterdayOnly() throws IOException {
+        DailyScheduler scheduler = scheduler(TODAY);
+
+        scheduler.schedule(JOB, KST, TODAY.minusDays(2), runs::add);
+
+        assertEquals(List.of(TODAY.minusDays(1)), runs);
+        assertEquals(TODAY.minusDays(1), scheduler.getLastProcessed(JOB));
+    }
+
+    @Test
+    void catchesUpMissedDaysInOrder() throws IOException {
+        scheduler(TODAY.minusDays(3)).schedule(JOB, KST, TODAY.minusDays(4), runs::add);
+        runs.clear();
+
+        // 사흘 뒤 재시작: 저장된 날짜가 있으므로 넘겨준 시작 날짜는 쓰지 않는다.
+        DailyScheduler restarted = scheduler(TODAY);
+        restarted.schedule(JOB, KST, TODAY.minusDays(1), runs::add);
+
+        assertEquals(List.of(TODAY.minusDays(3), TODAY.minusDays(2), TODAY.minusDays(1)), runs);
+    }
+
+    @Test
+    void catchUpIsCappedAtMaxDays() throws IOException {
+        DailyScheduler scheduler = scheduler(TODAY);
+
+        scheduler.schedule(JOB, KST, TODAY.minusDays(30), runs::add);
+
+        assertEquals(DailyScheduler.MAX_CATCH_UP_DAYS, runs.size());
+        assertEquals(TODAY.minusDays(DailyScheduler.MAX_CATCH_UP_DAYS), runs.get(0));
+        assertEquals(TODAY.minusDays(1), runs.get(runs.size() - 1));
+    }
+
+    @Test
+    void failureStopsAtFailedDate() throws IOException {
+        DailyScheduler scheduler = scheduler(TODAY);
+        LocalDate failing = TODAY.minusDays(2);
+
+        scheduler.schedule(JOB, KST, TODAY.minusDays(4), date -> {
+            runs.add(date);
+            if (date.equals(failing)) {
+                throw new IllegalStateException("전송 실패");
+            }
+        });
+
+        assertEquals(List.of(TODAY.minusDays(3), failing), runs);
+        assertEquals(TODAY.minusDays(3), scheduler.getLastProcessed(JOB));
+    }
+
+    @Test
+    void cancelKeepsStateAndRemoveClearsIt() throws IOException {
+        DailyScheduler scheduler = scheduler(TODAY);
+        scheduler.schedule(JOB, KST, TODAY.minusDays(1), runs::add);
+
+        scheduler.cancel(JOB);
+        assertEquals(TODAY.minusDays(1), scheduler.getLastProcessed(JOB));
+
+        scheduler.schedule(JOB, KST, TODAY.minusDays(1), runs::add);
+        scheduler.remove(JOB);
+        assertNull(scheduler.getLastProcessed(JOB));
+        assertNull(scheduler(TODAY).getLastProcessed(JOB));
+    }
+
+    @Test
+    void reRegisterAfterRemoveDoesNotReplayGap() throws IOException {
+        scheduler(TODAY.minusDays(20)).schedule(JOB, KST, TODAY.minusDays(21), runs::add);
+        scheduler(TODAY.minusDays(20)).remove(JOB);
+        runs.clear();
+
+        scheduler(TODAY).schedule(JOB, KST, TODAY.minusDays(1), runs::add);
+
+        assertEquals(List.of(), runs);
+    }
+
+    @Test
+    void rejectsDuplicateJob() throws IOException {
+        DailyScheduler scheduler = scheduler(TODAY);
+        scheduler.schedule(JOB, KST, TODAY.minusDays(1), runs::add);
+
+        assertThrows(IllegalStateException.class, () -> scheduler.schedule(JOB, KST, TODAY.minusDays(1), runs::add));
+    }
+}
@@ -0,0 +1,155 @@
+package com.studybot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 기록 파일 내보내기와 중단된 내보내기 이어 가기.
+ */
+class HistoryFileTest {
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    @TempDir
+    Path dir;
+
+    private static List<StudyRecord> records(long fromId, int count) {
+        List<StudyRecord> records = new ArrayList<>();
+        for (long id = fromId; id < fromId + count; id++) {
+            records.add(new StudyRecord(id, id % 3 + 1, 1_700_000_000_000L + id * 3_600_000L, "기록 " + id + " 📚 Spring"));
+        }
+        return records;
+    }
+
+    private static List<StudyRecord> concat(List<StudyRecord> first, List<StudyRecord> second) {
+        List<StudyRecord> all = new ArrayList<>(first);
+        all.addAll(second);
+        return all;
+    }
+
+    @Test
+    void roundTripsRecords() throws IOException {
+        Path file = dir.resolve("history.bin");
+        List<StudyRecord> records = records(1, 250);
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            journal.append(records.subList(0, 100), 100);
+            journal.append(records.subList(100, 250), 260);
+            journal.finish();
+        }
+
+        try (HistoryFile history = HistoryFile.open(file)) {
+            assertEquals(250, history.size());
+            assertEquals(260, history.lastMessageId());
+            assertEquals(KST, history.zone());
+            assertEquals(records, history.records());
+            StudyRecord last = records.get(249);
+            assertEquals(last.date(KST), history.date(249));
+        }
+        assertFalse(Files.exists(dir.resolve("history.bin.part")));
+        assertFalse(Files.exists(dir.resolve("history.bin.checkpoint")));
+    }
+
+    @Test
+    void roundTripsEmptyHistory() throws IOException {
+        Path file = dir.resolve("empty.bin");
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            journal.append(List.of(), 0);
+            journal.finish();
+        }
+
+        try (HistoryFile history = HistoryFile.open(file)) {
+            assertEquals(0, history.size());
+            assertEquals(List.of(), history.records());
+        }
+    }
+
+    @Test
+    void resumesInterruptedExport() throws IOException {
+        Path file = dir.resolve("history.bin");
+        List<StudyRecord> first = records(1, 100);
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            journal.append(first, 100);
+        }
+
+        List<StudyRecord> second = records(101, 50);
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            assertEquals(100, journal.lastMessageId());
+            assertEquals(100, journal.size());
+            journal.append(second, 150);
+            journal.finish();
+        }
+
+        try (HistoryFile history = HistoryFile.open(file)) {
+            assertEquals(concat(first, second), history.records());
+            assertEquals(150, history.lastMessageId());
+        }
+    }
+
+    @Test
+    void dropsTornTailAfterCheckpoint() throws IOException {
+        Path file = dir.resolve("history.bin");
+        List<StudyRecord> first = records(1, 10);
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            journal.append(first, 10);
+        }
+        // 체크포인트를 남기기 전에 중단되어 쓰다 만 행
+        Files.write(dir.resolve("history.bin.part"), new byte[]{0, 0, 0, 0, 0, 0, 0, 11, 0, 0}, StandardOpenOption.APPEND);
+
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            assertEquals(10, journal.size());
+            journal.finish();
+        }
+
+        try (HistoryFile history = HistoryFile.open(file)) {
+            assertEquals(first, history.records());
+        }
+    }
+
+    @Test
+    void resumesFromFinishedFile() throws IOException {
+        Path file = dir.resolve("history.bin");
+        List<StudyRecord> first = records(1, 1200);
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            journal.append(first, 1205);
+            journal.finish();
+        }
+
+        List<StudyRecord> second = records(1206, 3);
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            assertEquals(1200, journal.size());
+            assertEquals(1205, journal.lastMessageId());
+            journal.append(second, 1208);
+            journal.finish();
+        }
+
+        try (HistoryFile history = HistoryFile.open(file)) {
+            assertEquals(concat(first, second), history.records());
+            assertEquals(second.get(2).date(KST), history.date(1202));
+        }
+    }
+
+    @Test
+    void rejectsCorruptedFile() throws IOException {
+        Path file = dir.resolve("history.bin");
+        try (HistoryFile.Journal journal = HistoryFile.Journal.resume(file, KST)) {
+            journal.append(records(1, 5), 5);
+            journal.finish();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> HistoryFile.open(file));
+    }
+}
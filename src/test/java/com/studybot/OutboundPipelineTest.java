@@ -0,0 +1,157 @@
+package com.studybot;
+
+import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 디스코드 길이 제한(메시지 2,000자, 필드 1,024자, 임베드당 필드 25개, 임베드 6,000자)에 맞춘 분할과 재시도 판단.
+ */
+class OutboundPipelineTest {
+    private static final Supplier<EmbedBuilder> HEADER = () -> new EmbedBuilder().setTitle("📅 참여 현황");
+
+    private static List<String> mentions(int count) {
+        List<String> mentions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            mentions.add("<@" + (100000000000000000L + i) + ">");
+        }
+        return mentions;
+    }
+
+    private static List<String> lines(int count, int length) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(String.valueOf((char) ('a' + i % 26)).repeat(length));
+        }
+        return lines;
+    }
+
+    private static List<MessageEmbed.Field> fields(int count, int valueLength) {
+        List<MessageEmbed.Field> fields = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            fields.add(new MessageEmbed.Field("멤버 " + i, "x".repeat(valueLength), true));
+        }
+        return fields;
+    }
+
+    @Test
+    void splitsMessageAtLimitWithHeaderOnFirst() {
+        String header = "🔔 **기록이 없는 멤버입니다.**\n";
+        List<String> items = mentions(300);
+
+        List<String> messages = OutboundPipeline.splitMessage(header, items, " ");
+
+        assertTrue(messages.size() > 1);
+        assertTrue(messages.get(0).startsWith(header));
+        List<String> rejoined = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            String message = messages.get(i);
+            assertTrue(message.length() <= OutboundPipeline.MESSAGE_LIMIT, "message " + i + ": " + message.length());
+            String body = i == 0 ? message.substring(header.length()) : message;
+            assertFalse(body.contains(header));
+            rejoined.addAll(List.of(body.split(" ")));
+        }
+        assertEquals(items, rejoined);
+    }
+
+    @Test
+    void messageExactlyAtLimitStaysWhole() {
+        String header = "h";
+        List<String> items = List.of("x".repeat(OutboundPipeline.MESSAGE_LIMIT - 1));
+
+        List<String> messages = OutboundPipeline.splitMessage(header, items, " ");
+
+        assertEquals(1, messages.size());
+        assertEquals(OutboundPipeline.MESSAGE_LIMIT, messages.get(0).length());
+    }
+
+    @Test
+    void headerOnlyWhenNoItems() {
+        assertEquals(List.of("머리말"), OutboundPipeline.splitMessage("머리말", List.of(), " "));
+    }
+
+    @Test
+    void truncatesItemLongerThanLimit() {
+        List<String> chunks = OutboundPipeline.chunk(List.of("x".repeat(30), "y"), ",", 10);
+
+        assertEquals(List.of("x".repeat(9) + "…", "y"), chunks);
+    }
+
+    @Test
+    void splitsFieldAtValueLimit() {
+        List<String> lines = lines(50, 99);
+
+        List<MessageEmbed.Field> fields = OutboundPipeline.splitField("기록한 멤버", lines, "\n", false);
+
+        assertTrue(fields.size() > 1);
+        assertEquals("기록한 멤버", fields.get(0).getName());
+        int total = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            MessageEmbed.Field field = fields.get(i);
+            assertTrue(field.getValue().length() <= OutboundPipeline.FIELD_VALUE_LIMIT);
+            assertFalse(field.isInline());
+            if (i > 0) {
+                assertEquals("기록한 멤버 (계속)", field.getName());
+            }
+            total += field.getValue().split("\n").length;
+        }
+        assertEquals(lines.size(), total);
+    }
+
+    @Test
+    void paginatesAtTwentyFiveFields() {
+        List<MessageEmbed> embeds = OutboundPipeline.paginate(HEADER, fields(30, 10));
+
+        assertEquals(2, embeds.size());
+        assertEquals(OutboundPipeline.FIELDS_PER_EMBED, embeds.get(0).getFields().size());
+        assertEquals(5, embeds.get(1).getFields().size());
+        assertEquals("페이지 1/2", embeds.get(0).getFooter().getText());
+        assertEquals("페이지 2/2", embeds.get(1).getFooter().getText());
+    }
+
+    @Test
+    void paginatesAtEmbedLengthLimit() {
+        List<MessageEmbed.Field> fields = fields(12, OutboundPipeline.FIELD_VALUE_LIMIT);
+
+        List<MessageEmbed> embeds = OutboundPipeline.paginate(HEADER, fields);
+
+        assertTrue(embeds.size() > 2);
+        int total = 0;
+        for (MessageEmbed embed : embeds) {
+            assertTrue(embed.getLength() <= OutboundPipeline.EMBED_LIMIT, "embed length " + embed.getLength());
+            assertEquals("📅 참여 현황", embed.getTitle());
+            total += embed.getFields().size();
+        }
+        assertEquals(fields.size(), total);
+    }
+
+    @Test
+    void singlePageHasNoFooter() {
+        List<MessageEmbed> embeds = OutboundPipeline.paginate(HEADER, fields(3, 10));
+
+        assertEquals(1, embeds.size());
+        assertNull(embeds.get(0).getFooter());
+    }
+
+    @Test
+    void retriesOnlyFailuresBeforeConnecting() {
+        assertTrue(OutboundPipeline.isRetryable(new ConnectException("refused")));
+        assertTrue(OutboundPipeline.isRetryable(new RuntimeException(new ConnectException("refused"))));
+        // 요청을 보낸 뒤의 시간 초과는 디스코드가 이미 메시지를 올렸을 수 있다.
+        assertFalse(OutboundPipeline.isRetryable(new SocketTimeoutException("read timed out")));
+        assertFalse(OutboundPipeline.isRetryable(new IOException("connection reset")));
+        assertFalse(OutboundPipeline.isRetryable(new IllegalStateException()));
+    }
+}
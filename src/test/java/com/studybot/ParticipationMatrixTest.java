@@ -0,0 +1,133 @@
+package com.studybot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 64일 블록 경계를 걸치는 참여일 수와 연속 기록 계산.
+ */
+class ParticipationMatrixTest {
+    private static final long USER = 42L;
+
+    private static int day(int offset) {
+        return ParticipationMatrix.BASE_EPOCH_DAY + offset;
+    }
+
+    private static ParticipationMatrix withDays(int from, int to) {
+        ParticipationMatrix matrix = new ParticipationMatrix();
+        for (int offset = from; offset <= to; offset++) {
+            matrix.set(USER, day(offset));
+        }
+        return matrix;
+    }
+
+    @Test
+    void countsAcrossWordBoundary() {
+        ParticipationMatrix matrix = withDays(60, 70);
+
+        assertEquals(11, matrix.count(USER, day(60), day(70)));
+        assertEquals(2, matrix.count(USER, day(63), day(64)));
+        assertEquals(1, matrix.count(USER, day(64), day(64)));
+        assertEquals(11, matrix.count(USER, day(0), day(1000)));
+        assertEquals(0, matrix.count(USER, day(71), day(1000)));
+        assertEquals(11, matrix.countAll(USER));
+    }
+
+    @Test
+    void setReturnsFalseForDuplicateDay() {
+        ParticipationMatrix matrix = new ParticipationMatrix();
+
+        assertTrue(matrix.set(USER, day(63)));
+        assertFalse(matrix.set(USER, day(63)));
+        assertEquals(1, matrix.countAll(USER));
+    }
+
+    @Test
+    void countsAfterGrowingPastEmptyWords() {
+        // 뒤쪽 블록을 먼저 채운 뒤 앞쪽과 더 뒤쪽에 기록해도 누적합이 맞아야 한다.
+        ParticipationMatrix matrix = new ParticipationMatrix();
+        matrix.set(USER, day(500));
+        matrix.set(USER, day(10));
+        matrix.set(USER, day(700));
+
+        assertEquals(1, matrix.count(USER, day(0), day(499)));
+        assertEquals(0, matrix.count(USER, day(501), day(699)));
+        assertEquals(2, matrix.count(USER, day(500), day(5000)));
+        assertEquals(3, matrix.countAll(USER));
+    }
+
+    @Test
+    void countsMatchBruteForce() {
+        Random random = new Random(7);
+        ParticipationMatrix matrix = new ParticipationMatrix();
+        BitSet[] expected = new BitSet[5];
+        for (int user = 0; user < expected.length; user++) {
+            expected[user] = new BitSet();
+        }
+        for (int i = 0; i < 2000; i++) {
+            int user = random.nextInt(expected.length);
+            int offset = random.nextInt(400);
+            matrix.set(user + 1, day(offset));
+            expected[user].set(offset);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            int user = random.nextInt(expected.length);
+            int from = random.nextInt(450);
+            int to = from + random.nextInt(200);
+            int naive = expected[user].get(from, to + 1).cardinality();
+            assertEquals(naive, matrix.count(user + 1, day(from), day(to)), "user " + user + " " + from + ".." + to);
+        }
+        for (int user = 0; user < expected.length; user++) {
+            assertEquals(expected[user].cardinality(), matrix.countAll(user + 1));
+        }
+    }
+
+    @Test
+    void currentStreakSpansWholeWords() {
+        ParticipationMatrix matrix = withDays(0, 130);
+
+        assertEquals(131, matrix.currentStreak(USER, day(130)));
+        // 오늘 아직 기록하지 않았으면 어제까지 센다.
+        assertEquals(131, matrix.currentStreak(USER, day(131)));
+        assertEquals(0, matrix.currentStreak(USER, day(132)));
+        assertEquals(131, matrix.longestStreak(USER));
+    }
+
+    @Test
+    void streakBreaksAtWordBoundary() {
+        ParticipationMatrix matrix = withDays(0, 63);
+        for (int offset = 65; offset <= 130; offset++) {
+            matrix.set(USER, day(offset));
+        }
+
+        assertEquals(66, matrix.currentStreak(USER, day(130)));
+        assertEquals(64, matrix.currentStreak(USER, day(63)));
+        assertEquals(66, matrix.longestStreak(USER));
+    }
+
+    @Test
+    void streakOfExactlyOneFullWord() {
+        ParticipationMatrix matrix = withDays(64, 127);
+
+        assertEquals(64, matrix.currentStreak(USER, day(127)));
+        assertEquals(64, matrix.longestStreak(USER));
+        assertEquals(64, matrix.count(USER, day(64), day(127)));
+    }
+
+    @Test
+    void unknownUserHasNothing() {
+        ParticipationMatrix matrix = withDays(0, 10);
+
+        assertEquals(0, matrix.count(7L, day(0), day(10)));
+        assertEquals(0, matrix.countAll(7L));
+        assertEquals(0, matrix.currentStreak(7L, day(10)));
+        assertEquals(0, matrix.longestStreak(7L));
+    }
+}
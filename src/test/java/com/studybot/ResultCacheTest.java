@@ -0,0 +1,102 @@
+package com.studybot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 채널별 캐시 토큰: 계산 도중 무효화된 결과는 저장하지 않고, 다른 채널의 무효화에는 영향을 받지 않는다.
+ */
+class ResultCacheTest {
+    private static final long CHANNEL = 1;
+    private static final long OTHER_CHANNEL = 2;
+
+    private final ResultCache<String> cache = new ResultCache<>("test", 3);
+
+    @Test
+    void storesResultComputedWithCurrentToken() {
+        long token = cache.token(CHANNEL);
+        cache.put("확인:1:2026-03-09", "결과", CHANNEL, token);
+
+        assertEquals("결과", cache.get("확인:1:2026-03-09"));
+    }
+
+    @Test
+    void dropsResultInvalidatedWhileComputing() {
+        long token = cache.token(CHANNEL);
+        cache.invalidateIf(CHANNEL, key -> key.startsWith("확인:1:"));
+        cache.put("확인:1:2026-03-09", "오래된 결과", CHANNEL, token);
+
+        assertNull(cache.get("확인:1:2026-03-09"));
+    }
+
+    @Test
+    void otherChannelInvalidationKeepsToken() {
+        long token = cache.token(OTHER_CHANNEL);
+        cache.invalidateIf(CHANNEL, key -> key.startsWith("확인:1:"));
+        cache.put("확인:2:2026-03-09", "결과", OTHER_CHANNEL, token);
+
+        assertEquals(token, cache.token(OTHER_CHANNEL));
+        assertEquals("결과", cache.get("확인:2:2026-03-09"));
+    }
+
+    @Test
+    void clearInvalidatesEveryChannelWithoutReusingTokens() {
+        cache.invalidateIf(CHANNEL, key -> false);
+        long beforeClear = cache.token(CHANNEL);
+        long otherBeforeClear = cache.token(OTHER_CHANNEL);
+        cache.clear();
+
+        assertNotEquals(beforeClear, cache.token(CHANNEL));
+        assertNotEquals(otherBeforeClear, cache.token(OTHER_CHANNEL));
+        cache.put("확인:1:2026-03-09", "오래된 결과", CHANNEL, beforeClear);
+        assertNull(cache.get("확인:1:2026-03-09"));
+
+        // 지운 뒤 다시 무효화해도 예전 토큰 값으로 돌아가지 않는다.
+        cache.invalidateIf(CHANNEL, key -> false);
+        assertNotEquals(beforeClear, cache.token(CHANNEL));
+    }
+
+    @Test
+    void invalidateRemovesOnlyMatchingKeys() {
+        long token = cache.token(CHANNEL);
+        cache.put("확인:1:2026-03-09", "a", CHANNEL, token);
+        cache.put("참여도:1:2026-03-09", "b", CHANNEL, token);
+
+        cache.invalidateIf(CHANNEL, key -> key.startsWith("확인:1:"));
+
+        assertNull(cache.get("확인:1:2026-03-09"));
+        assertEquals("b", cache.get("참여도:1:2026-03-09"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        long token = cache.token(CHANNEL);
+        cache.put("a", "1", CHANNEL, token);
+        cache.put("b", "2", CHANNEL, token);
+        cache.put("c", "3", CHANNEL, token);
+        cache.get("a");
+        cache.put("d", "4", CHANNEL, token);
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+    }
+
+    @Test
+    void countsHitsAndMissesByCacheName() {
+        long hitsBefore = Metrics.CACHE_HITS.labels("test").value();
+        long missesBefore = Metrics.CACHE_MISSES.labels("test").value();
+        cache.put("a", "1", CHANNEL, cache.token(CHANNEL));
+
+        cache.get("a");
+        cache.get("b");
+        cache.get("c");
+
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(1, Metrics.CACHE_HITS.labels("test").value() - hitsBefore);
+        assertEquals(2, Metrics.CACHE_MISSES.labels("test").value() - missesBefore);
+    }
+}
@@ -0,0 +1,93 @@
+package com.studybot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 검색 결과의 순위와 같은 점수일 때의 순서, 조건 필터.
+ */
+class SearchIndexTest {
+    private static final SearchIndex.Query ANY = query("스프링");
+
+    private static SearchIndex.Query query(String text) {
+        return new SearchIndex.Query(text, Long.MIN_VALUE, Long.MAX_VALUE, 0);
+    }
+
+    private static List<Long> ids(SearchIndex.Result result) {
+        return result.hits().stream().map(hit -> hit.record().messageId()).toList();
+    }
+
+    @Test
+    void ranksFrequentShortMatchFirst() {
+        SearchIndex index = new SearchIndex();
+        index.add(new StudyRecord(1, 10, 1000, "오늘은 스프링 책을 읽고 배운 내용을 길게 정리했다"));
+        index.add(new StudyRecord(2, 10, 2000, "스프링 스프링"));
+        index.add(new StudyRecord(3, 10, 3000, "자바 공부"));
+
+        SearchIndex.Result result = index.search(ANY, 10);
+
+        assertEquals(List.of(2L, 1L), ids(result));
+        assertEquals(2, result.total());
+        assertTrue(result.hits().get(0).score() > result.hits().get(1).score());
+    }
+
+    @Test
+    void tiesPutRecentRecordsFirst() {
+        SearchIndex index = new SearchIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.add(new StudyRecord(id, 10, id * 1000, "스프링 공부"));
+        }
+
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(index.search(ANY, 10)));
+    }
+
+    @Test
+    void limitKeepsRecentRecordsWhenOlderOnesAreIndexedLater() {
+        // 예전 기록을 나중에 채워 넣어도 상위 결과는 최근 기록이어야 한다.
+        SearchIndex index = new SearchIndex();
+        for (long id = 5; id >= 1; id--) {
+            index.add(new StudyRecord(id, 10, id * 1000, "스프링 공부"));
+        }
+
+        SearchIndex.Result result = index.search(ANY, 2);
+
+        assertEquals(List.of(5L, 4L), ids(result));
+        assertEquals(5, result.total());
+    }
+
+    @Test
+    void longTokensMustBeContiguous() {
+        SearchIndex index = new SearchIndex();
+        index.add(new StudyRecord(1, 10, 1000, "스프 프링"));
+        index.add(new StudyRecord(2, 10, 2000, "스프링부트"));
+
+        assertEquals(List.of(2L), ids(index.search(ANY, 10)));
+    }
+
+    @Test
+    void filtersByMemberAndPeriod() {
+        SearchIndex index = new SearchIndex();
+        index.add(new StudyRecord(1, 10, 1000, "스프링"));
+        index.add(new StudyRecord(2, 20, 2000, "스프링"));
+        index.add(new StudyRecord(3, 10, 3000, "스프링"));
+
+        assertEquals(List.of(3L, 1L), ids(index.search(new SearchIndex.Query("스프링", Long.MIN_VALUE, Long.MAX_VALUE, 10), 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search(new SearchIndex.Query("스프링", 1000, 2000, 0), 10)));
+        assertEquals(List.of(1L), ids(index.search(new SearchIndex.Query("스프링", 1000, 2000, 10), 10)));
+    }
+
+    @Test
+    void ignoresCaseAndRequiresEveryToken() {
+        SearchIndex index = new SearchIndex();
+        index.add(new StudyRecord(1, 10, 1000, "Spring JPA 정리"));
+        index.add(new StudyRecord(2, 10, 2000, "spring 기초"));
+
+        assertEquals(List.of(2L, 1L), ids(index.search(query("SPRING"), 10)));
+        assertEquals(List.of(1L), ids(index.search(query("spring jpa"), 10)));
+        assertEquals(0, index.search(query("리액트"), 10).total());
+    }
+}